@@ -0,0 +1,22 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.util.ColorSupplier;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random color around a base color, drawn for every block and leaf.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColorBenchmark {
+    private static final Color BASE_COLOR = new Color(212, 123, 74);
+
+    @Benchmark
+    public Color approximateColor() {
+        return ColorSupplier.approximateColor(BASE_COLOR);
+    }
+}
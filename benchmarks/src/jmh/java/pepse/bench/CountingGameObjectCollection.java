@@ -0,0 +1,47 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * Collection that only counts the objects added to it, so benchmarks measure the generation code
+ * and not the engine's layer bookkeeping.
+ */
+public class CountingGameObjectCollection extends GameObjectCollection {
+    private long added = 0;
+    private long removed = 0;
+
+    /**
+     * @param gameObject game object
+     * @param layerId    layer of the object
+     */
+    @Override
+    public void addGameObject(GameObject gameObject, int layerId) {
+        added++;
+    }
+
+    /**
+     * @param gameObject game object
+     * @param layerId    layer of the object
+     * @return always true
+     */
+    @Override
+    public boolean removeGameObject(GameObject gameObject, int layerId) {
+        removed++;
+        return true;
+    }
+
+    /**
+     * @return amount of objects added
+     */
+    public long added() {
+        return added;
+    }
+
+    /**
+     * @return amount of objects removed
+     */
+    public long removed() {
+        return removed;
+    }
+}
@@ -0,0 +1,39 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.GraphicManager;
+import pepse.util.RenderInterpolator;
+import pepse.world.Flock;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stepping flocks of growing sizes by one frame, the time per bird should stay about the same,
+ * flocks from Flock.PARALLEL_THRESHOLD birds up are stepped in parallel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlockBenchmark {
+    private static final int SEED = 1234;
+    private static final float FRAME_TIME = 1f / GraphicManager.DESIRED_FPS;
+
+    @Param({"100", "1000", "4000", "16000"})
+    private int birds;
+    private Flock flock;
+
+    @Setup(Level.Trial)
+    public void createFlock() {
+        var frames = new Image[]{new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)};
+        flock = new Flock(frames, birds, Vector2.ZERO, SEED, new RenderInterpolator());
+    }
+
+    @Benchmark
+    public Flock update() {
+        flock.update(FRAME_TIME);
+        return flock;
+    }
+}
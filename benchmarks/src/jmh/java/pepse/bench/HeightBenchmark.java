@@ -0,0 +1,38 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.world.Block;
+import pepse.world.HeightField;
+import pepse.world.Terrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ground height of a single column through the cache, and of a whole world's columns at once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeightBenchmark {
+    private static final int SEED = 1234;
+
+    // a span wider than the height cache, so lookups keep missing
+    @Param({"64", "65536"})
+    public int columns;
+
+    private final int[] heights = new int[64];
+    private int column = 0;
+
+    @Benchmark
+    public int myGroundHeightAt() {
+        column = (column + 1) % columns;
+        return Terrain.myGroundHeightAt(column * Block.SIZE, SEED);
+    }
+
+    @Benchmark
+    public int[] fillHeights() {
+        column = (column + heights.length) % columns;
+        HeightField.fill(column, SEED, heights);
+        return heights;
+    }
+}
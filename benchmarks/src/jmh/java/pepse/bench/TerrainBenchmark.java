@@ -0,0 +1,38 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.*;
+import pepse.GraphicManager;
+import pepse.world.Block;
+import pepse.world.Palette;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a column of blocks, returning the blocks to the pool after every call like a removed world does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TerrainBenchmark {
+    private static final Palette PALETTE = new Palette(new Color(212, 123, 74));
+    private static final int SEED = 1234;
+
+    @Param({"4", "20"})
+    public int depth;
+
+    private int x = 0;
+
+    @Benchmark
+    public ArrayList<GameObject> createBlockCol() {
+        x += Block.SIZE;
+        var col = GraphicManager.createBlockCol(x, 450, depth, PALETTE, SEED);
+        for (var block : col) {
+            Block.POOL.release((Block) block);
+        }
+        Block.POOL.recycleReleased();
+        return col;
+    }
+}
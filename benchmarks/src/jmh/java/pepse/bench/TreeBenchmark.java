@@ -0,0 +1,45 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.GraphicManager;
+import pepse.util.RenderInterpolator;
+import pepse.world.AttachQueue;
+import pepse.world.Block;
+import pepse.world.ViewBounds;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Tree;
+import pepse.world.trees.Wind;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating the trees of a window wide range, the trees are deleted after every call like a removed world's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeBenchmark {
+    private static final int SEED = 1234;
+
+    private final CountingGameObjectCollection gameObjects = new CountingGameObjectCollection();
+    private final Wind wind = new Wind();
+    private final RenderInterpolator interpolator = new RenderInterpolator();
+    private Tree tree;
+    private int minX = 0;
+
+    @Benchmark
+    public Tree createInRange() {
+        tree = new Tree(gameObjects, GraphicManager.TREE_LAYER, SEED, new AttachQueue(), wind,
+                new ViewBounds(), interpolator);
+        minX += GraphicManager.WINDOW_WIDTH;
+        tree.createInRange(minX, minX + GraphicManager.WINDOW_WIDTH);
+        return tree;
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTree() {
+        tree.deleteTree();
+        Block.POOL.recycleReleased();
+        Leaf.POOL.recycleReleased();
+    }
+}
@@ -0,0 +1,46 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.GraphicManager;
+import pepse.util.RenderInterpolator;
+import pepse.world.Block;
+import pepse.world.ViewBounds;
+import pepse.world.World;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Wind;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and attaching a whole world against a stub collection, the world is removed after every call
+ * like a world the avatar left behind.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldBenchmark {
+    private static final int SEED = 1234;
+
+    private final CountingGameObjectCollection gameObjects = new CountingGameObjectCollection();
+    private final Wind wind = new Wind();
+    private final RenderInterpolator interpolator = new RenderInterpolator();
+    private final int worldWidth = GraphicManager.roundX(GraphicManager.WINDOW_WIDTH, 1);
+    private World world;
+    private int leftBorder = 0;
+
+    @Benchmark
+    public World createWorld() {
+        leftBorder += worldWidth;
+        world = new World(leftBorder, leftBorder + worldWidth, gameObjects, SEED, wind, new ViewBounds(),
+                interpolator);
+        world.attachAll();
+        return world;
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeWorld() {
+        world.removeWorld();
+        Block.POOL.recycleReleased();
+        Leaf.POOL.recycleReleased();
+    }
+}
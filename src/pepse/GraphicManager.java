@@ -4,17 +4,19 @@ import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
-import danogl.components.ScheduledTask;
 import danogl.components.Transition;
 import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.util.AssetCache;
+import pepse.util.RenderInterpolator;
 
-import pepse.util.ColorSupplier;
 import pepse.world.*;
 import pepse.world.daynight.*;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Wind;
 
 import java.awt.*;
 import java.util.ArrayList;
@@ -40,69 +42,137 @@ public class GraphicManager {
             UI_LAYER = Layer.UI - 1,
             LOADING_SCREEN_LAYER = Layer.UI;
     public static final int DESIRED_FPS = 70;
+    public static final int RENDER_FPS = Integer.getInteger("pepse.renderFps", DESIRED_FPS);
+    public static final float DEFAULT_WORLD_ATTACH_BUDGET_MS = 2f;
+    public static final int CHUNK_COLUMNS = Integer.getInteger("pepse.chunkColumns", 8);
+    public static final int CHUNKS_PER_SIDE = Integer.getInteger("pepse.chunksPerSide", 5);
+    public static final String STARTUP_REPORT_PROPERTY = "pepse.diagnostics.startup";
+    private static final String BLOCK_TAG = "block";
     private static final String LOADING_SCREEN_IMG = "assets/loadingScreen.png";
     private static final String BACKGROUND_MUSIC_PATH = "assets/backgroundMusic.wav";
     private static final Color
             SUN_HALO_COLOR = new Color(255, 255, 0, 20),
             MOON_HALO_COLOR = new Color(255, 255, 255, 20);
+    // the flock is turned back once it's a screen wide world away from the avatar
+    private static final int FLOCK_RETURN_DISTANCE = roundX(WINDOW_WIDTH, 1);
+    private static final float[]
+            SUN_HALO_FACTORS = {1.3f, 1.3f, 1.6f, 2f},
+            MOON_HALO_FACTORS = {1.2f, 1.3f, 1.4f, 1.5f};
 
+    private final AssetCache assets;
     private final ImageReader imageReader;
     private final SoundReader soundReader;
     private final UserInputListener inputListener;
     private final GameObjectCollection gameObjects;
     private final int seed;
+    private final Wind wind = new Wind();
+    private final ViewBounds viewBounds = new ViewBounds();
+    private final RenderInterpolator interpolator;
+    private final DayNightClock dayNightClock = DayNightClock.create(DAY_CYCLE_LENGTH);
+    private final WorldStreamer worldStreamer;
     private GameObject loadingScreen;
+    private boolean isLoadingScreenFading = false;
+    private long openingWorldNanos;
     public Avatar avatar;
-    public World leftWorld, centerWorld, rightWorld;
-    public int worldWidth;
 
 
     /**
-     * @param imageReader   image reader
-     * @param soundReader   sound reader
+     * @param assets        cache decoding the game's images and sounds
      * @param inputListener input listener
      * @param gameObjects   collection of game objects
      * @param seed          the seed
+     * @param chunkCache    cache of generated chunks, or null to generate every chunk
+     * @param interpolator  draws the game between its last two steps
      */
-    public GraphicManager(ImageReader imageReader, SoundReader soundReader, UserInputListener inputListener,
-                   GameObjectCollection gameObjects, int seed) {
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
+    public GraphicManager(AssetCache assets, UserInputListener inputListener, GameObjectCollection gameObjects,
+                          int seed, ChunkCache chunkCache, RenderInterpolator interpolator) {
+        this.assets = assets;
+        this.imageReader = assets.imageReader();
+        this.soundReader = assets.soundReader();
         this.inputListener = inputListener;
         this.gameObjects = gameObjects;
         this.seed = seed;
+        this.interpolator = interpolator;
+        var worldGenerator = new WorldGenerator(gameObjects, seed, wind, viewBounds, interpolator,
+                chunkCache);
+        worldStreamer = new WorldStreamer(worldGenerator, CHUNK_COLUMNS, CHUNKS_PER_SIDE, WINDOW_WIDTH,
+                DEFAULT_WORLD_ATTACH_BUDGET_MS);
+        initLoadingScreen();
+        preloadAssets();
         var sound = soundReader.readSound(BACKGROUND_MUSIC_PATH);
         sound.playLooped();
         initializeGraphicObjects();
+    }
+
+    /**
+     * streaming the world's chunks around the avatar
+     */
+    public void streamWorld() {
+        worldStreamer.update(avatar.getCenter().x(), avatar.getVelocity().x());
+    }
+
+    /**
+     * moving the range in which objects are awake to the camera's view, called before the objects are updated
+     *
+     * @param camera the camera of the game
+     */
+    public void updateViewBounds(Camera camera) {
+        viewBounds.update(camera);
+    }
+
+    /**
+     * @return time it took to build and add the chunks in view at the beginning of the game
+     */
+    public long getOpeningWorldNanos() {
+        return openingWorldNanos;
+    }
+
+    /**
+     * @return the clock of the day and night cycle
+     */
+    public DayNightClock getDayNightClock() {
+        return dayNightClock;
+    }
+
+    /**
+     * @return the streamer of the world's chunks
+     */
+    public WorldStreamer getWorldStreamer() {
+        return worldStreamer;
+    }
 
+    /**
+     * make blocks and leaves of removed worlds available for new worlds,
+     * called once the removals were flushed from the game
+     */
+    public void recycleRemovedObjects() {
+        Block.POOL.recycleReleased();
+        Leaf.POOL.recycleReleased();
     }
 
     /**
-     * @param leftBorder  left X coordinate
-     * @param rightBorder right X coordinate
-     * @return World object
+     * @param budgetMillis time per frame allowed for adding new chunks' objects to the game
      */
-    public World createWorld(int leftBorder, int rightBorder) {
-        return new World(leftBorder, rightBorder, gameObjects, seed);
+    public void setWorldAttachBudget(float budgetMillis) {
+        worldStreamer.setAttachBudget(budgetMillis);
     }
 
     /**
      * @param x         X coordinate
      * @param y         Y coordinate
      * @param depth     column's depth
-     * @param baseColor base color
+     * @param palette   colors of the blocks
+     * @param seed      the seed
      * @return column of blocks
      */
-    public static ArrayList<GameObject> createBlockCol(int x, int y, int depth, Color baseColor) {
+    public static ArrayList<GameObject> createBlockCol(int x, int y, int depth, Palette palette, int seed) {
         var col = new ArrayList<GameObject>();
         for (int i = 0; i < depth; i++) {
             int height = y + (i * Block.SIZE);
             var topLeftCorner = Vector2.of(x, height);
-            var color = ColorSupplier.approximateColor(baseColor);
-            var renderer = new RectangleRenderable(color);
-            var block = new Block(topLeftCorner, renderer);
+            var block = Block.obtain(topLeftCorner, palette.renderableAt(x, height, seed));
             col.add(block);
-            block.setTag("block (" + x + ',' + y + ')');
+            block.setTag(BLOCK_TAG);
         }
         return col;
     }
@@ -128,14 +198,44 @@ public class GraphicManager {
     }
 
     /**
-     * create loading screen
+     * start decoding all the images and sounds of the game in the background,
+     * the objects created next wait only for their own assets
+     */
+    private void preloadAssets() {
+        assets.preloadSounds(BACKGROUND_MUSIC_PATH);
+        Sky.preload(assets);
+        Sunset.preload(assets);
+        Moon.preload(assets);
+        Stars.preload(assets);
+        Avatar.preload(assets);
+        Flock.preload(assets);
+        assets.finishPreloading();
+    }
+
+    /**
+     * create loading screen, shown until all the assets were decoded
      */
     private void initLoadingScreen() {
         var image = imageReader.readImage(LOADING_SCREEN_IMG, false);
         loadingScreen = new GameObject(Vector2.ZERO, WINDOW_DIMENSIONS, image);
         loadingScreen.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(loadingScreen, LOADING_SCREEN_LAYER);
-        new ScheduledTask(loadingScreen, 3, false, this::loadingScreenFadeOut);
+        loadingScreen.addComponent(deltaTime -> fadeOutLoadingScreenWhenLoaded());
+    }
+
+    /**
+     * fade out loading screen once the assets were decoded, and report their decoding times
+     * if the pepse.diagnostics.startup system property is set
+     */
+    private void fadeOutLoadingScreenWhenLoaded() {
+        if (isLoadingScreenFading || !assets.isLoaded()) {
+            return;
+        }
+        isLoadingScreenFading = true;
+        if (Boolean.getBoolean(STARTUP_REPORT_PROPERTY)) {
+            System.out.print(assets.timingReport());
+        }
+        loadingScreenFadeOut();
     }
 
     /**
@@ -154,107 +254,77 @@ public class GraphicManager {
      * removing loading screen
      */
     private void removeLoadingScreen() {
-        gameObjects.removeGameObject(loadingScreen, UI_LAYER);
+        gameObjects.removeGameObject(loadingScreen, LOADING_SCREEN_LAYER);
     }
 
     /**
      * creating graphical objects
      */
     private void initializeGraphicObjects() {
-        initLoadingScreen();
         initSky();
+        initWind();
         initOpeningWorld();
         initAvatar();
-        initBird();
+        initFlock();
     }
 
     /**
      * creating game's sky
      */
     private void initSky() {
-        Sky.myCreate(gameObjects, imageReader);
-        Night.create(gameObjects, NIGHT_LAYER, WINDOW_DIMENSIONS, DAY_CYCLE_LENGTH);
-        var sun = Sun.create(gameObjects, SUN_LAYER, WINDOW_DIMENSIONS, DAY_CYCLE_LENGTH);
-        SunHalo.myCreate(gameObjects, sun, SUN_HALO_COLOR, 1.3f);
-        SunHalo.myCreate(gameObjects, sun, SUN_HALO_COLOR, 1.3f);
-        SunHalo.myCreate(gameObjects, sun, SUN_HALO_COLOR, 1.6f);
-        SunHalo.myCreate(gameObjects, sun, SUN_HALO_COLOR, 2f);
-        Sunset.create(gameObjects, imageReader);
-        var moon = Moon.create(DAY_CYCLE_LENGTH, gameObjects, imageReader);
-        SunHalo.myCreate(gameObjects, moon, MOON_HALO_COLOR, 1.2f);
-        SunHalo.myCreate(gameObjects, moon, MOON_HALO_COLOR, 1.3f);
-        SunHalo.myCreate(gameObjects, moon, MOON_HALO_COLOR, 1.4f);
-        SunHalo.myCreate(gameObjects, moon, MOON_HALO_COLOR, 1.5f);
-        Stars.create(DAY_CYCLE_LENGTH, gameObjects, imageReader);
+        Sky.myCreate(gameObjects, imageReader, seed, viewBounds, interpolator);
+        gameObjects.addGameObject(dayNightClock, SKY_LAYER);
+        Night.create(gameObjects, NIGHT_LAYER, WINDOW_DIMENSIONS, dayNightClock);
+        var sun = Sun.create(gameObjects, SUN_LAYER, WINDOW_DIMENSIONS, dayNightClock);
+        SunHalo.myCreate(gameObjects, sun, SUN_HALO_COLOR, SUN_HALO_FACTORS);
+        Sunset.create(gameObjects, imageReader, dayNightClock);
+        var moon = Moon.create(dayNightClock, gameObjects, imageReader);
+        SunHalo.myCreate(gameObjects, moon, MOON_HALO_COLOR, MOON_HALO_FACTORS);
+        Stars.create(dayNightClock, gameObjects, imageReader);
     }
 
     /**
-     * creating 3 worlds for the beginning of the game
-     * center for the avatar
-     * and left, right an extra worlds to continue the game
+     * creating the wind swaying all the leaves
+     */
+    private void initWind() {
+        gameObjects.addGameObject(wind, SKY_LAYER);
+    }
+
+    /**
+     * creating the chunks around the avatar for the beginning of the game
      */
     private void initOpeningWorld() {
-        var centerWorldLeftBorder = roundX(0, 0);
-        var centerWorldRightBorder = roundX(WINDOW_WIDTH, 1);
-        worldWidth = centerWorldRightBorder;
-        leftWorld = new World(-1 * centerWorldRightBorder, centerWorldLeftBorder, gameObjects, seed);
-        centerWorld = new World(centerWorldLeftBorder, centerWorldRightBorder, gameObjects, seed);
-        rightWorld = new World(centerWorldRightBorder, 2 * centerWorldRightBorder, gameObjects, seed);
+        long start = System.nanoTime();
+        worldStreamer.start(getAvatarInitialLocation(seed).x() + Avatar.DIMENSIONS.x() / 2);
+        openingWorldNanos = System.nanoTime() - start;
     }
 
     /**
      * creating an avatar
      */
     private void initAvatar() {
-        avatar = Avatar.myCreate(getAvatarInitialLocation(seed), inputListener, imageReader, soundReader);
+        avatar = Avatar.myCreate(getAvatarInitialLocation(seed), inputListener, imageReader, soundReader, seed);
         gameObjects.addGameObject(avatar, GAME_OBJECTS_LAYER);
         initEnergyCounter();
     }
 
     /**
-     * creating energy counter
+     * creating energy counter, there's no text to draw without a display
      */
     private void initEnergyCounter() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return;
+        }
         var counter = new EnergyCounter(avatar, Vector2.ONES.mult(20), Vector2.ONES.mult(20));
         gameObjects.addGameObject(counter, UI_LAYER);
         counter.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
     }
 
     /**
-     * creating bird
-     */
-    private void initBird() {
-        var bird = Bird.create(gameObjects, imageReader, seed);
-        bird.addComponent(deltaTime -> respawnBird(bird));
-    }
-
-    /**
-     * respawning the bird
-     *
-     * @param bird bird object
-     */
-    private void respawnBird(GameObject bird) {
-        var distance = Math.abs(avatar.getCenter().x() - bird.getCenter().x());
-        if (distance < worldWidth + 150) {
-            return;
-        }
-        switchFlightDirection(bird);
-        if (bird.renderer().isFlippedHorizontally()) {
-            Bird.respawn(avatar.getCenter().x() + worldWidth);
-        } else {
-            Bird.respawn(avatar.getCenter().x() - worldWidth);
-        }
-    }
-
-    /**
-     * switching the bird's flying direction
-     *
-     * @param bird bird object
+     * creating the flock of birds, turned back whenever it flies a world's width away from the avatar
      */
-    private void switchFlightDirection(GameObject bird) {
-        var curVelocity = bird.getVelocity();
-        bird.setVelocity(curVelocity.mult(-1));
-        var direction = bird.renderer().isFlippedHorizontally();
-        bird.renderer().setIsFlippedHorizontally(!direction);
+    private void initFlock() {
+        var flock = Flock.create(gameObjects, imageReader, seed, interpolator);
+        flock.addComponent(deltaTime -> flock.returnTo(avatar.getCenter().x(), FLOCK_RETURN_DISTANCE));
     }
 }
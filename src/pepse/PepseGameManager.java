@@ -1,6 +1,7 @@
 package pepse;
 
 import danogl.GameManager;
+import danogl.collisions.GameObjectCollection;
 import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
@@ -8,18 +9,40 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
 
+import pepse.diagnostics.CsvFrameLog;
+import pepse.diagnostics.FrameStats;
+import pepse.diagnostics.PerformanceOverlay;
+import pepse.util.AssetCache;
+import pepse.util.RenderInterpolator;
 import pepse.world.Avatar;
-import pepse.world.Terrain;
-import pepse.world.World;
+import pepse.world.ChunkCache;
 import pepse.world.trees.Tree;
 
+import java.awt.*;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
 
 public class PepseGameManager extends GameManager {
 
     private static final String WINDOW_NAME = "Pepse Max";
+    private static final int[] COUNTED_LAYERS = {GraphicManager.TERRAIN_LAYER, GraphicManager.TREE_LAYER,
+            GraphicManager.TREE_LAYER + Tree.TREETOP_LAYER_SPACER, GraphicManager.UI_LAYER};
+    private static final String[] COUNTED_LAYER_NAMES = {"terrain", "trees", "treetops", "ui"};
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final float STEP_TIME = 1f / GraphicManager.DESIRED_FPS;
+    private static final int MAX_STEPS_PER_FRAME = 8;
     private final int seed;
+    private final boolean isSeedGiven;
+    private final long createdNanos = System.nanoTime();
+    private boolean isFirstFrame = true;
     private GraphicManager graphicManager;
+    private boolean isHeadless = false;
+    private Camera headlessCamera;
+    private FrameStats frameStats;
+    private PerformanceOverlay performanceOverlay;
+    private CsvFrameLog frameLog;
+    private final RenderInterpolator interpolator = new RenderInterpolator();
+    private float unsimulatedTime = 0;
 
     /**
      * constructor
@@ -41,6 +64,7 @@ public class PepseGameManager extends GameManager {
     public PepseGameManager(String windowTitle, Vector2 windowDimensions, String seed) {
         super(windowTitle, windowDimensions);
         this.seed = seed != null ? seed.hashCode() : new Random().nextInt();
+        isSeedGiven = seed != null;
     }
 
     /**
@@ -58,72 +82,204 @@ public class PepseGameManager extends GameManager {
                                UserInputListener inputListener,
                                WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
-        graphicManager = new GraphicManager(imageReader, soundReader, inputListener,
-                gameObjects(), seed);
-        windowController.setTargetFramerate(GraphicManager.DESIRED_FPS);
+        var assets = new AssetCache(() -> new ImageReader(windowController),
+                () -> new SoundReader(windowController));
+        initializePepse(assets, inputListener);
+        windowController.setTargetFramerate(GraphicManager.RENDER_FPS);
+    }
+
+    /**
+     * This method initializes a new game without opening a window.
+     * Nothing is rendered, the caller steps the game by calling update.
+     *
+     * @param imageReader   an object used to read images, from any thread
+     * @param soundReader   an object used to read sound files, from any thread
+     * @param inputListener a listener capable of reading user keyboard inputs
+     */
+    public void initializeHeadless(ImageReader imageReader,
+                                   SoundReader soundReader,
+                                   UserInputListener inputListener) {
+        isHeadless = true;
+        setGameObjectsCollection(new GameObjectCollection());
+        initializePepse(new AssetCache(() -> imageReader, () -> soundReader), inputListener);
+    }
+
+    /**
+     * @return the camera of the game
+     */
+    @Override
+    public Camera camera() {
+        return isHeadless ? headlessCamera : super.camera();
+    }
 
-        setCamera(new Camera(graphicManager.avatar, Vector2.ZERO.add(Vector2.of(0, -100)),
+    /**
+     * @return the camera of the game
+     */
+    @Override
+    public Camera getCamera() {
+        return camera();
+    }
+
+    /**
+     * @return the graphic manager of the game
+     */
+    public GraphicManager getGraphicManager() {
+        return graphicManager;
+    }
+
+    /**
+     * creating the game's objects and camera
+     *
+     * @param assets        cache decoding the game's images and sounds
+     * @param inputListener a listener capable of reading user keyboard inputs
+     */
+    private void initializePepse(AssetCache assets, UserInputListener inputListener) {
+        // only a windowed game of a chosen seed keeps its chunks, a random seed is rarely played again
+        var chunkCache = ChunkCache.open(seed, GraphicManager.CHUNK_COLUMNS, isSeedGiven && !isHeadless);
+        graphicManager = new GraphicManager(assets, inputListener, gameObjects(), seed, chunkCache,
+                interpolator);
+
+        useCamera(new Camera(graphicManager.avatar, Vector2.ZERO.add(Vector2.of(0, -100)),
                 GraphicManager.WINDOW_DIMENSIONS, GraphicManager.WINDOW_DIMENSIONS));
         var windowCenter = GraphicManager.WINDOW_DIMENSIONS.mult(0.5f);
         var avatarLocation = GraphicManager.getAvatarInitialLocation(seed);
         var pos = windowCenter.add(avatarLocation.mult(-1)).add(Vector2.UP.mult(Avatar.DIMENSIONS.x()));
-        setCamera(new Camera(graphicManager.avatar, pos, GraphicManager.WINDOW_DIMENSIONS,
+        useCamera(new Camera(graphicManager.avatar, pos, GraphicManager.WINDOW_DIMENSIONS,
                 GraphicManager.WINDOW_DIMENSIONS));
         gameObjects().layers().shouldLayersCollide(GraphicManager.GAME_OBJECTS_LAYER, GraphicManager.TREE_LAYER, true);
+        // the avatar is kept on top of the terrain by its height field collider
+        gameObjects().layers().shouldLayersCollide(GraphicManager.GAME_OBJECTS_LAYER,
+                GraphicManager.TERRAIN_LAYER, false);
+        // falling leaves find the ground through the terrain's height field, see Leaf.fallTo
         gameObjects().layers().shouldLayersCollide(GraphicManager.TERRAIN_LAYER,
-                GraphicManager.TREE_LAYER + Tree.TREETOP_LAYER_SPACER, true);
+                GraphicManager.TREE_LAYER + Tree.TREETOP_LAYER_SPACER, false);
+        initDiagnostics(inputListener);
+        interpolator.track(graphicManager.avatar);
+        interpolator.track(camera());
+    }
+
+    /**
+     * creating the frame stats, the overlay showing them, and the CSV log if
+     * the pepse.diagnostics.csv system property is set
+     *
+     * @param inputListener a listener capable of reading user keyboard inputs
+     */
+    private void initDiagnostics(UserInputListener inputListener) {
+        frameStats = new FrameStats(gameObjects(), COUNTED_LAYERS, COUNTED_LAYER_NAMES);
+        if (!GraphicsEnvironment.isHeadless()) {
+            performanceOverlay = PerformanceOverlay.create(gameObjects(), GraphicManager.UI_LAYER,
+                    inputListener, frameStats);
+        }
+        frameLog = CsvFrameLog.fromSystemProperty(frameStats);
+        if (frameLog != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(frameLog::close));
+        }
     }
 
     /**
      * This method overrides the GameManager update method.
-     * It checks for game status, and triggers a new game popup.
+     * The game is simulated in steps of a fixed length, as many as fit in the time since the last frame,
+     * and the remainder is carried to the next frame, so the game plays the same at any frame rate.
+     * After a long stall at most MAX_STEPS_PER_FRAME steps are made and the rest of the time is dropped.
+     * Keys that act when released are read once here, before the steps, since the engine clears them once a
+     * frame, while the steps only read the keys that are held.
      *
-     * @param deltaTime used in the super's update method
+     * @param deltaTime time since the last frame
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
-        handleWorldsPassing();
-        fixAvatarUndedectedCollisions();
+        long frameStart = System.nanoTime();
+        unsimulatedTime += deltaTime;
+        if (performanceOverlay != null) {
+            performanceOverlay.pollInput();
+        }
+        long simulationNanos = 0;
+        int steps = 0;
+        while (unsimulatedTime >= STEP_TIME && steps < MAX_STEPS_PER_FRAME) {
+            simulationNanos += step();
+            unsimulatedTime -= STEP_TIME;
+            steps++;
+        }
+        if (steps == MAX_STEPS_PER_FRAME) {
+            unsimulatedTime = Math.min(unsimulatedTime, STEP_TIME);
+        }
+        recordFrame(frameStart, simulationNanos);
+        if (isFirstFrame) {
+            isFirstFrame = false;
+            reportStartup();
+        }
+    }
+
+    /**
+     * drawing the game between its last two steps, by the part of a step that wasn't simulated yet
+     *
+     * @param g graphics of the frame
+     */
+    @Override
+    public void render(Graphics2D g) {
+        interpolator.apply(Math.min(1, unsimulatedTime / STEP_TIME));
+        super.render(g);
+        interpolator.restore();
+    }
 
+    /**
+     * simulating one step of the game
+     *
+     * @return time spent updating the game objects, in nanoseconds
+     */
+    private long step() {
+        interpolator.beforeStep();
+        long stepStart = System.nanoTime();
+        graphicManager.updateViewBounds(camera());
+        super.update(STEP_TIME);
+        if (isHeadless) {
+            headlessCamera.update(STEP_TIME);
+        }
+        long superUpdateNanos = System.nanoTime() - stepStart;
+        graphicManager.recycleRemovedObjects();
+        graphicManager.streamWorld();
+        return superUpdateNanos;
     }
 
     /**
-     * preventing avatar from falling inside the terrain
+     * printing the time to the first frame if the pepse.diagnostics.startup system property is set
      */
-    private void fixAvatarUndedectedCollisions() {
-        var avatar = graphicManager.avatar;
-        var avatarBottomY = avatar.getTopLeftCorner().y() + Avatar.DIMENSIONS.y();
-        var avatarX = avatar.getCenter().x();
-        var terrainHeight = Terrain.myGroundHeightAt(GraphicManager.roundX((int) avatarX, 0), seed);
-        if (avatarBottomY > terrainHeight + 5) {
-            graphicManager.avatar.setCenter(Vector2.of(avatarX, terrainHeight - Avatar.DIMENSIONS.y() / 2));
+    private void reportStartup() {
+        if (!Boolean.getBoolean(GraphicManager.STARTUP_REPORT_PROPERTY)) {
+            return;
         }
+        System.out.printf("startup: first frame %.1f ms after the game was created (opening world %.1f ms), " +
+                        "%d ms after the JVM started%n",
+                (System.nanoTime() - createdNanos) / NANOS_IN_MILLI,
+                graphicManager.getOpeningWorldNanos() / NANOS_IN_MILLI,
+                ManagementFactory.getRuntimeMXBean().getUptime());
     }
 
     /**
-     * handle avatar passing between worlds
+     * recording the frame's stats, for the overlay and the CSV log
+     *
+     * @param frameStart      System.nanoTime() at the start of the frame
+     * @param superUpdateNanos time spent updating the game objects in the frame's steps
+     */
+    private void recordFrame(long frameStart, long superUpdateNanos) {
+        frameStats.setCountingLayers(frameLog != null ||
+                (performanceOverlay != null && performanceOverlay.isVisible()));
+        frameStats.record(frameStart, superUpdateNanos, System.nanoTime() - frameStart - superUpdateNanos);
+        if (frameLog != null) {
+            frameLog.append();
+        }
+    }
+
+    /**
+     * without a window the engine can't register the camera for mouse events, so it's kept and updated here
+     *
+     * @param camera the camera
      */
-    private void handleWorldsPassing() {
-        var avatarXLocation = graphicManager.avatar.getCenter().x();
-        if (graphicManager.rightWorld.isAvatarAtThisWorld(avatarXLocation)) {
-            var leftBorder = graphicManager.rightWorld.rightBorder;
-            var rightBorder = graphicManager.rightWorld.rightBorder + graphicManager.worldWidth;
-            World aWholeNewWorld = graphicManager.createWorld(leftBorder, rightBorder);
-
-            graphicManager.leftWorld.removeWorld();
-            graphicManager.leftWorld = graphicManager.centerWorld;
-            graphicManager.centerWorld = graphicManager.rightWorld;
-            graphicManager.rightWorld = aWholeNewWorld;
-        } else if (graphicManager.leftWorld.isAvatarAtThisWorld(avatarXLocation)) {
-            var leftBorder = graphicManager.leftWorld.leftBorder - graphicManager.worldWidth;
-            var rightBorder = graphicManager.leftWorld.leftBorder;
-            World aWholeNewWorld = graphicManager.createWorld(leftBorder, rightBorder);
-
-            graphicManager.rightWorld.removeWorld();
-            graphicManager.rightWorld = graphicManager.centerWorld;
-            graphicManager.centerWorld = graphicManager.leftWorld;
-            graphicManager.leftWorld = aWholeNewWorld;
+    private void useCamera(Camera camera) {
+        if (isHeadless) {
+            headlessCamera = camera;
+        } else {
+            setCamera(camera);
         }
     }
 
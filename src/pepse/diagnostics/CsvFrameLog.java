@@ -0,0 +1,93 @@
+package pepse.diagnostics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the stats of every frame as a row of a CSV file.
+ */
+public class CsvFrameLog implements Closeable {
+    public static final String PATH_PROPERTY = "pepse.diagnostics.csv";
+    private static final int FRAMES_BETWEEN_FLUSHES = 70;
+    private static final double NANOS_IN_MILLI = 1e6;
+
+    private final PrintWriter writer;
+    private final FrameStats stats;
+
+    /**
+     * opening the file and writing the header
+     *
+     * @param path  path of the CSV file
+     * @param stats stats of the frames
+     * @throws UncheckedIOException if the file can't be opened
+     */
+    public CsvFrameLog(Path path, FrameStats stats) {
+        this.stats = stats;
+        try {
+            writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't open frame log " + path, e);
+        }
+        writer.print("frame,frame_ms,update_ms");
+        for (var name : FrameStats.SECTION_NAMES) {
+            writer.print(',');
+            writer.print(columnName(name) + "_ms");
+        }
+        for (int i = 0; i < stats.layerCount(); i++) {
+            writer.print(',');
+            writer.print(columnName(stats.layerName(i)));
+        }
+        writer.println(",allocated_bytes");
+    }
+
+    /**
+     * @param stats stats of the frames
+     * @return the log of the path in the pepse.diagnostics.csv system property, or null if it isn't set
+     */
+    public static CsvFrameLog fromSystemProperty(FrameStats stats) {
+        var path = System.getProperty(PATH_PROPERTY);
+        return path == null ? null : new CsvFrameLog(Path.of(path), stats);
+    }
+
+    /**
+     * writing the row of the last recorded frame
+     */
+    public void append() {
+        writer.print(stats.frameCount());
+        writer.print(',');
+        writer.print(stats.frameTime() / NANOS_IN_MILLI);
+        writer.print(',');
+        writer.print(stats.updateTime() / NANOS_IN_MILLI);
+        for (int i = 0; i < FrameStats.SECTION_NAMES.length; i++) {
+            writer.print(',');
+            writer.print(stats.sectionTime(i) / NANOS_IN_MILLI);
+        }
+        for (int i = 0; i < stats.layerCount(); i++) {
+            writer.print(',');
+            writer.print(stats.objectsInLayer(i));
+        }
+        writer.print(',');
+        writer.println(stats.allocatedBytes());
+        if (stats.frameCount() % FRAMES_BETWEEN_FLUSHES == 0) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * flushing and closing the file
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * @param name name of a section or a layer
+     * @return the name as a CSV column name
+     */
+    private static String columnName(String name) {
+        return name.replace(' ', '_');
+    }
+}
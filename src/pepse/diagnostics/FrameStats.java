@@ -0,0 +1,193 @@
+package pepse.diagnostics;
+
+import danogl.collisions.GameObjectCollection;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Timings, object counts and allocations of the recent frames of the game loop.
+ * Recording a frame doesn't allocate, the history of frame times is a ring buffer.
+ */
+public class FrameStats {
+    public static final int SUPER_UPDATE = 0, WORLD_STREAMING = 1;
+    static final String[] SECTION_NAMES = {"super update", "world streaming"};
+    private static final int HISTORY_LENGTH = 512;
+    private static final long UNSUPPORTED = -1;
+
+    private final GameObjectCollection gameObjects;
+    private final int[] layers;
+    private final String[] layerNames;
+    private final int[] layerCounts;
+    private final long[] frameTimes = new long[HISTORY_LENGTH];
+    private final long[] sortedFrameTimes = new long[HISTORY_LENGTH];
+    private final long[] sectionTimes = new long[SECTION_NAMES.length];
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long threadId = UNSUPPORTED;
+    private int historySize = 0;
+    private int nextFrame = 0;
+    private long frameCount = 0;
+    private long lastFrameStart = 0;
+    private long frameTime = 0;
+    private long updateTime = 0;
+    private long lastAllocatedBytes;
+    private long allocatedBytes = UNSUPPORTED;
+    private boolean isCountingLayers = false;
+
+    /**
+     * @param gameObjects collection of game objects
+     * @param layers      layers to count the objects of
+     * @param layerNames  names of the layers
+     */
+    public FrameStats(GameObjectCollection gameObjects, int[] layers, String[] layerNames) {
+        this.gameObjects = gameObjects;
+        this.layers = layers.clone();
+        this.layerNames = layerNames.clone();
+        layerCounts = new int[layers.length];
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threadBean = null;
+        }
+    }
+
+    /**
+     * @param isCountingLayers true to count the objects of every layer each frame
+     */
+    public void setCountingLayers(boolean isCountingLayers) {
+        this.isCountingLayers = isCountingLayers;
+    }
+
+    /**
+     * recording a frame, called by the game thread at the end of the frame's update
+     *
+     * @param frameStart     System.nanoTime() at the start of the frame's update
+     * @param superUpdate    nanoseconds spent updating the game objects
+     * @param worldStreaming nanoseconds spent streaming the world
+     */
+    public void record(long frameStart, long superUpdate, long worldStreaming) {
+        long now = System.nanoTime();
+        if (lastFrameStart != 0) {
+            frameTime = frameStart - lastFrameStart;
+            frameTimes[nextFrame] = frameTime;
+            nextFrame = (nextFrame + 1) % HISTORY_LENGTH;
+            historySize = Math.min(historySize + 1, HISTORY_LENGTH);
+        }
+        lastFrameStart = frameStart;
+        updateTime = now - frameStart;
+        sectionTimes[SUPER_UPDATE] = superUpdate;
+        sectionTimes[WORLD_STREAMING] = worldStreaming;
+        if (threadBean != null) {
+            recordAllocations();
+        }
+        if (isCountingLayers) {
+            countLayers();
+        }
+        frameCount++;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return frame time in nanoseconds that the given percent of the recent frames didn't exceed
+     */
+    public long frameTimePercentile(double percentile) {
+        if (historySize == 0) {
+            return 0;
+        }
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, historySize);
+        Arrays.sort(sortedFrameTimes, 0, historySize);
+        int index = (int) Math.ceil(percentile / 100 * historySize) - 1;
+        return sortedFrameTimes[Math.max(0, Math.min(index, historySize - 1))];
+    }
+
+    /**
+     * @return amount of recorded frames
+     */
+    public long frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return nanoseconds between the start of the last frame and the one before it
+     */
+    public long frameTime() {
+        return frameTime;
+    }
+
+    /**
+     * @return nanoseconds spent in the last frame's update
+     */
+    public long updateTime() {
+        return updateTime;
+    }
+
+    /**
+     * @param section SUPER_UPDATE or WORLD_STREAMING
+     * @return nanoseconds spent in the section in the last frame
+     */
+    public long sectionTime(int section) {
+        return sectionTimes[section];
+    }
+
+    /**
+     * @return bytes the game thread allocated in the last frame, or -1 if the JVM can't tell
+     */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return amount of counted layers
+     */
+    public int layerCount() {
+        return layers.length;
+    }
+
+    /**
+     * @param index index of the layer
+     * @return name of the layer
+     */
+    public String layerName(int index) {
+        return layerNames[index];
+    }
+
+    /**
+     * @param index index of the layer
+     * @return amount of objects in the layer in the last counted frame
+     */
+    public int objectsInLayer(int index) {
+        return layerCounts[index];
+    }
+
+    /**
+     * recording the bytes the game thread allocated since the last frame
+     */
+    private void recordAllocations() {
+        if (threadId == UNSUPPORTED) {
+            threadId = Thread.currentThread().getId();
+            lastAllocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+            return;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        allocatedBytes = allocated - lastAllocatedBytes;
+        lastAllocatedBytes = allocated;
+    }
+
+    /**
+     * counting the objects of every layer
+     */
+    private void countLayers() {
+        for (int i = 0; i < layers.length; i++) {
+            int count = 0;
+            if (!gameObjects.isLayerEmpty(layers[i])) {
+                for (var ignored : gameObjects.objectsInLayer(layers[i])) {
+                    count++;
+                }
+            }
+            layerCounts[i] = count;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package pepse.diagnostics;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.components.CoordinateSpace;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+
+/**
+ * Diagnostics text drawn over the game, shown and hidden with F3.
+ * The text is refreshed a few times a second, so drawing it barely shows in the numbers.
+ */
+public class PerformanceOverlay extends GameObject {
+    public static final int TOGGLE_KEY = KeyEvent.VK_F3;
+    private static final Vector2 TOP_LEFT_CORNER = Vector2.of(20, 50);
+    private static final Vector2 LINE_DIMENSIONS = Vector2.of(420, 18);
+    private static final int LINES = 4;
+    private static final float REFRESH_TIME = 0.25f;
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final double BYTES_IN_KB = 1024;
+
+    private final UserInputListener inputListener;
+    private final FrameStats stats;
+    private final TextRenderable[] texts = new TextRenderable[LINES];
+    private final GameObject[] lines = new GameObject[LINES];
+    private boolean isVisible = false;
+    private float timeSinceRefresh = 0;
+
+    /**
+     * @param inputListener input listener
+     * @param stats         stats of the frames
+     */
+    private PerformanceOverlay(UserInputListener inputListener, FrameStats stats) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        this.inputListener = inputListener;
+        this.stats = stats;
+    }
+
+    /**
+     * @param gameObjects   collection of game objects
+     * @param layer         layer of the overlay
+     * @param inputListener input listener
+     * @param stats         stats of the frames
+     * @return the overlay, hidden until F3 is pressed
+     */
+    public static PerformanceOverlay create(GameObjectCollection gameObjects, int layer,
+                                            UserInputListener inputListener, FrameStats stats) {
+        var overlay = new PerformanceOverlay(inputListener, stats);
+        for (int i = 0; i < LINES; i++) {
+            overlay.texts[i] = new TextRenderable("");
+            overlay.texts[i].setColor(Color.BLACK);
+            var topLeftCorner = TOP_LEFT_CORNER.add(Vector2.DOWN.mult(i * LINE_DIMENSIONS.y()));
+            var line = new GameObject(topLeftCorner, LINE_DIMENSIONS, null);
+            line.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+            overlay.lines[i] = line;
+            gameObjects.addGameObject(line, layer);
+        }
+        gameObjects.addGameObject(overlay, layer);
+        return overlay;
+    }
+
+    /**
+     * @return true if the overlay is shown
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    /**
+     * showing or hiding the overlay if its key was released, called once per frame since the key is
+     * released in a frame and not in each of the frame's steps
+     */
+    public void pollInput() {
+        if (inputListener.wasKeyReleasedThisFrame(TOGGLE_KEY)) {
+            toggle();
+        }
+    }
+
+    /**
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (!isVisible) {
+            return;
+        }
+        timeSinceRefresh += deltaTime;
+        if (timeSinceRefresh >= REFRESH_TIME) {
+            timeSinceRefresh = 0;
+            refresh();
+        }
+    }
+
+    /**
+     * showing or hiding the overlay
+     */
+    private void toggle() {
+        isVisible = !isVisible;
+        for (int i = 0; i < LINES; i++) {
+            lines[i].renderer().setRenderable(isVisible ? texts[i] : null);
+        }
+        if (isVisible) {
+            refresh();
+        }
+    }
+
+    /**
+     * writing the current stats
+     */
+    private void refresh() {
+        texts[0].setString(String.format("frame ms  p50 %.1f  p95 %.1f  p99 %.1f  max %.1f",
+                millis(stats.frameTimePercentile(50)), millis(stats.frameTimePercentile(95)),
+                millis(stats.frameTimePercentile(99)), millis(stats.frameTimePercentile(100))));
+        var sections = new StringBuilder(String.format("update ms %.2f ", millis(stats.updateTime())));
+        for (int i = 0; i < FrameStats.SECTION_NAMES.length; i++) {
+            sections.append(String.format(" %s %.2f", FrameStats.SECTION_NAMES[i], millis(stats.sectionTime(i))));
+        }
+        texts[1].setString(sections.toString());
+        var objects = new StringBuilder("objects");
+        for (int i = 0; i < stats.layerCount(); i++) {
+            objects.append(String.format("  %s %d", stats.layerName(i), stats.objectsInLayer(i)));
+        }
+        texts[2].setString(objects.toString());
+        long allocated = stats.allocatedBytes();
+        texts[3].setString(allocated < 0 ? "allocated: not supported by this JVM" :
+                String.format("allocated %.1f KB/frame", allocated / BYTES_IN_KB));
+    }
+
+    /**
+     * @param nanos nanoseconds
+     * @return milliseconds
+     */
+    private static double millis(long nanos) {
+        return nanos / NANOS_IN_MILLI;
+    }
+}
@@ -0,0 +1,22 @@
+package pepse.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The avatar was found inside the terrain and was moved back on top of it.
+ */
+@Name("pepse.AvatarCorrected")
+@Label("Avatar Corrected")
+@Category({"Pepse", "Avatar"})
+@StackTrace(false)
+public class AvatarCorrectedEvent extends Event {
+    @Label("X")
+    public float x;
+
+    @Label("Bottom Y")
+    @Description("Y coordinate of the avatar's bottom before the correction")
+    public float bottomY;
+
+    @Label("Terrain Y")
+    public float terrainY;
+}
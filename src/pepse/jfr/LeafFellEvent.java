@@ -0,0 +1,18 @@
+package pepse.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A leaf's lifespan ended and it started falling.
+ */
+@Name("pepse.LeafFell")
+@Label("Leaf Fell")
+@Category({"Pepse", "Leaf"})
+@StackTrace(false)
+public class LeafFellEvent extends Event {
+    @Label("X")
+    public float x;
+
+    @Label("Y")
+    public float y;
+}
@@ -0,0 +1,18 @@
+package pepse.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A fallen leaf went back to its place on the tree.
+ */
+@Name("pepse.LeafRevived")
+@Label("Leaf Revived")
+@Category({"Pepse", "Leaf"})
+@StackTrace(false)
+public class LeafRevivedEvent extends Event {
+    @Label("X")
+    public float x;
+
+    @Label("Y")
+    public float y;
+}
@@ -0,0 +1,24 @@
+package pepse.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A world was built, the duration of the event is the time it took to build it.
+ */
+@Name("pepse.WorldCreated")
+@Label("World Created")
+@Category({"Pepse", "World"})
+@StackTrace(false)
+public class WorldCreatedEvent extends Event {
+    @Label("Left Border")
+    public int leftBorder;
+
+    @Label("Right Border")
+    public int rightBorder;
+
+    @Label("Block Count")
+    public int blockCount;
+
+    @Label("Tree Count")
+    public int treeCount;
+}
@@ -0,0 +1,21 @@
+package pepse.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A world was removed from the game and its blocks were returned to the pools.
+ */
+@Name("pepse.WorldRemoved")
+@Label("World Removed")
+@Category({"Pepse", "World"})
+@StackTrace(false)
+public class WorldRemovedEvent extends Event {
+    @Label("Left Border")
+    public int leftBorder;
+
+    @Label("Right Border")
+    public int rightBorder;
+
+    @Label("Block Count")
+    public int blockCount;
+}
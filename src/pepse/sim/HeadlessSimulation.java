@@ -0,0 +1,103 @@
+package pepse.sim;
+
+import pepse.GraphicManager;
+import pepse.PepseGameManager;
+import pepse.util.StubImageReader;
+import pepse.util.StubSoundReader;
+
+import java.util.Collections;
+
+/**
+ * Runs the game loop without a window, as fast as the CPU allows, with input played from a script.
+ * Every frame is stepped with the game's target frame time, so a run is the same on any machine,
+ * and the report says how many simulated seconds passed per wall clock second.
+ * <p>
+ * usage: HeadlessSimulation [script] [seed] [report interval seconds]
+ * <p>
+ * The default script runs right for 10 minutes, flying for 2 seconds and walking for 4 while the flying
+ * energy refills, so the avatar gets over the trees and keeps streaming new chunks. A report flags a run in
+ * which the avatar stopped moving since the last report.
+ * <p>
+ * With -Dpepse.timeScale the day and night cycle runs that many times faster than the game.
+ */
+public class HeadlessSimulation {
+    private static final String DEFAULT_SCRIPT = String.join(",", Collections.nCopies(100,
+            "RIGHT+SPACE+SHIFT:2,RIGHT:4"));
+    private static final String DEFAULT_SEED = "pepse";
+    private static final float DEFAULT_REPORT_INTERVAL = 60;
+    private static final float FRAME_TIME = 1f / GraphicManager.DESIRED_FPS;
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    private final PepseGameManager game;
+    private final ScriptedInput input;
+    private final float reportInterval;
+    private long frames = 0;
+    private float simulatedTime = 0;
+    private float lastReportedX = Float.NaN;
+
+    /**
+     * @param script         the input script, see {@link ScriptedInput}
+     * @param seed           the seed of the world
+     * @param reportInterval simulated seconds between progress reports
+     */
+    public HeadlessSimulation(String script, String seed, float reportInterval) {
+        this.input = new ScriptedInput(script);
+        this.reportInterval = reportInterval;
+        game = new PepseGameManager("", GraphicManager.WINDOW_DIMENSIONS, seed);
+        game.initializeHeadless(new StubImageReader(), new StubSoundReader(), input);
+    }
+
+    /**
+     * stepping the game until the script ends
+     *
+     * @return simulated seconds per wall clock second
+     */
+    public double run() {
+        long start = System.nanoTime();
+        float nextReport = reportInterval;
+        while (!input.isFinished()) {
+            input.advance(FRAME_TIME);
+            game.update(FRAME_TIME);
+            simulatedTime += FRAME_TIME;
+            frames++;
+            if (simulatedTime >= nextReport && !input.isFinished()) {
+                report(System.nanoTime() - start);
+                nextReport += reportInterval;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        report(elapsed);
+        var chunkCache = game.getGraphicManager().getWorldStreamer().getWorldGenerator().getChunkCache();
+        if (chunkCache != null) {
+            System.out.println(chunkCache);
+        }
+        return simulatedTime / (elapsed / NANOS_IN_SECOND);
+    }
+
+    /**
+     * printing the progress of the simulation
+     *
+     * @param elapsedNanos wall clock time since the simulation started
+     */
+    private void report(long elapsedNanos) {
+        double wallSeconds = elapsedNanos / NANOS_IN_SECOND;
+        var graphicManager = game.getGraphicManager();
+        var worldStreamer = graphicManager.getWorldStreamer();
+        float x = graphicManager.avatar.getCenter().x();
+        boolean isStalled = Math.abs(x - lastReportedX) < worldStreamer.chunkWidth();
+        lastReportedX = x;
+        System.out.printf("simulated %.1fs in %.2fs (%.1f simulated s/s, %.3f ms/frame), frames %d, " +
+                        "avatar x %.0f%s, worlds %d..%d, day %d%n",
+                simulatedTime, wallSeconds, simulatedTime / wallSeconds, wallSeconds * 1000 / frames, frames,
+                x, isStalled ? " (stalled, no new chunks were streamed)" : "", worldStreamer.leftBorder(),
+                worldStreamer.rightBorder(), graphicManager.getDayNightClock().getDay());
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        var script = args.length > 0 ? args[0] : DEFAULT_SCRIPT;
+        var seed = args.length > 1 ? args[1] : DEFAULT_SEED;
+        var reportInterval = args.length > 2 ? Float.parseFloat(args[2]) : DEFAULT_REPORT_INTERVAL;
+        new HeadlessSimulation(script, seed, reportInterval).run();
+    }
+}
@@ -0,0 +1,150 @@
+package pepse.sim;
+
+import danogl.gui.UserInputListener;
+import danogl.gui.mouse.MouseButton;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keyboard input played from a script instead of a window.
+ * A script is a comma separated list of steps, each step holds keys for some seconds,
+ * for example "RIGHT+SPACE+SHIFT:600,LEFT:30,NONE:5" runs right while flying for 10 minutes,
+ * then walks left for 30 seconds, then stands for 5 seconds.
+ */
+public class ScriptedInput implements UserInputListener {
+    private static final String STEP_SEPARATOR = ",";
+    private static final String DURATION_SEPARATOR = ":";
+    private static final String KEY_SEPARATOR = "\\+";
+    private static final String NO_KEYS = "NONE";
+    private static final String KEY_CODE_PREFIX = "VK_";
+
+    private final ArrayList<Set<Integer>> stepKeys = new ArrayList<>();
+    private final ArrayList<Float> stepEnds = new ArrayList<>();
+    private Set<Integer> pressedKeys = Set.of();
+    private Set<Integer> previousKeys = Set.of();
+    private float time = 0;
+    private int step = 0;
+
+    /**
+     * @param script the steps of the script
+     * @throws IllegalArgumentException if the script can't be parsed
+     */
+    public ScriptedInput(String script) {
+        float end = 0;
+        for (var stepScript : script.split(STEP_SEPARATOR)) {
+            var parts = stepScript.trim().split(DURATION_SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("step should be KEYS:SECONDS, got " + stepScript);
+            }
+            end += Float.parseFloat(parts[1]);
+            stepKeys.add(parseKeys(parts[0]));
+            stepEnds.add(end);
+        }
+        if (!stepKeys.isEmpty()) {
+            pressedKeys = stepKeys.get(0);
+        }
+    }
+
+    /**
+     * @return total seconds of the script
+     */
+    public float duration() {
+        return stepEnds.isEmpty() ? 0 : stepEnds.get(stepEnds.size() - 1);
+    }
+
+    /**
+     * @return true once every step was played
+     */
+    public boolean isFinished() {
+        return step >= stepKeys.size();
+    }
+
+    /**
+     * moving the script forward, called once before every frame
+     *
+     * @param deltaTime time since the last frame
+     */
+    public void advance(float deltaTime) {
+        time += deltaTime;
+        previousKeys = pressedKeys;
+        while (step < stepKeys.size() && time >= stepEnds.get(step)) {
+            step++;
+        }
+        pressedKeys = isFinished() ? Set.of() : stepKeys.get(step);
+    }
+
+    /**
+     * @param keyCode key code
+     * @return true if the script holds the key
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return pressedKeys.contains(keyCode);
+    }
+
+    /**
+     * @param keyCode key code
+     * @return true if the script stopped holding the key this frame
+     */
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return previousKeys.contains(keyCode) && !pressedKeys.contains(keyCode);
+    }
+
+    /**
+     * @param button mouse button
+     * @return false, scripts don't use the mouse
+     */
+    @Override
+    public boolean wasMouseButtonClickedThisFrame(MouseButton button) {
+        return false;
+    }
+
+    /**
+     * @param button mouse button
+     * @return false, scripts don't use the mouse
+     */
+    @Override
+    public boolean isMouseButtonPressed(MouseButton button) {
+        return false;
+    }
+
+    /**
+     * @return the top left corner of the screen, scripts don't use the mouse
+     */
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return Vector2.ZERO;
+    }
+
+    /**
+     * @return 0, scripts don't use the mouse
+     */
+    @Override
+    public double mouseWheelClicksThisFrame() {
+        return 0;
+    }
+
+    /**
+     * @param keysScript key names without the VK_ prefix, separated by +
+     * @return key codes
+     */
+    private static Set<Integer> parseKeys(String keysScript) {
+        var keys = new HashSet<Integer>();
+        for (var name : keysScript.trim().toUpperCase().split(KEY_SEPARATOR)) {
+            if (name.equals(NO_KEYS) || name.isEmpty()) {
+                continue;
+            }
+            try {
+                keys.add(KeyEvent.class.getField(KEY_CODE_PREFIX + name).getInt(null));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("unknown key " + name, e);
+            }
+        }
+        return Set.copyOf(keys);
+    }
+}
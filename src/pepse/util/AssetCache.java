@@ -0,0 +1,216 @@
+package pepse.util;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.ImageRenderable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decodes the game's images and sounds once, in parallel on a pool of loader threads.
+ * The engine's readers keep state while reading, so every thread reads through its own reader.
+ * The game reads its assets through the cache's reader views, which wait for a preloaded asset
+ * instead of decoding it again, and decode on the calling thread an asset that wasn't preloaded.
+ */
+public class AssetCache {
+    private static final String THREAD_NAME = "asset-loader";
+    private static final String MASKED_SUFFIX = "#masked";
+    private static final double NANOS_IN_MILLI = 1e6;
+
+    private final ThreadLocal<ImageReader> imageReaders;
+    private final ThreadLocal<SoundReader> soundReaders;
+    private final ExecutorService executor;
+    private final Map<String, Future<ImageRenderable>> images = new ConcurrentHashMap<>();
+    private final Map<String, Future<Sound>> sounds = new ConcurrentHashMap<>();
+    private final Map<String, Long> loadNanos = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private volatile long loadedNanos = 0;
+
+    /**
+     * @param imageReaderFactory creates the image reader of each thread
+     * @param soundReaderFactory creates the sound reader of each thread
+     */
+    public AssetCache(Supplier<ImageReader> imageReaderFactory, Supplier<SoundReader> soundReaderFactory) {
+        imageReaders = ThreadLocal.withInitial(imageReaderFactory);
+        soundReaders = ThreadLocal.withInitial(soundReaderFactory);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            var thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * start decoding images in the background
+     *
+     * @param useTopLeftPixelAsMask true if the top left pixel's color is transparent
+     * @param imagePaths            paths of the images
+     */
+    public void preloadImages(boolean useTopLeftPixelAsMask, String... imagePaths) {
+        for (var path : imagePaths) {
+            images.computeIfAbsent(key(path, useTopLeftPixelAsMask), key -> submit(key,
+                    () -> imageReaders.get().readImage(path, useTopLeftPixelAsMask)));
+        }
+    }
+
+    /**
+     * start decoding sounds in the background
+     *
+     * @param soundPaths paths of the sounds
+     */
+    public void preloadSounds(String... soundPaths) {
+        for (var path : soundPaths) {
+            sounds.computeIfAbsent(path, key -> submit(key, () -> soundReaders.get().readSound(path)));
+        }
+    }
+
+    /**
+     * no more assets will be preloaded, the loader threads end once they're done
+     */
+    public void finishPreloading() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return true once every preloaded asset was decoded
+     */
+    public boolean isLoaded() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * @return an image reader reading through the cache
+     */
+    public ImageReader imageReader() {
+        return new ImageReader(null) {
+            @Override
+            public ImageRenderable readImage(String imageFilePath, boolean useTopLeftPixelAsMask) {
+                return image(imageFilePath, useTopLeftPixelAsMask);
+            }
+        };
+    }
+
+    /**
+     * @return a sound reader reading through the cache
+     */
+    public SoundReader soundReader() {
+        return new SoundReader(null) {
+            @Override
+            public Sound readSound(String soundFilePath) {
+                return sound(soundFilePath);
+            }
+        };
+    }
+
+    /**
+     * @param path                  path of the image
+     * @param useTopLeftPixelAsMask true if the top left pixel's color is transparent
+     * @return the decoded image
+     */
+    public ImageRenderable image(String path, boolean useTopLeftPixelAsMask) {
+        var key = key(path, useTopLeftPixelAsMask);
+        var image = images.get(key);
+        if (image == null) {
+            return timed(key, () -> imageReaders.get().readImage(path, useTopLeftPixelAsMask));
+        }
+        return await(image);
+    }
+
+    /**
+     * @param path path of the sound
+     * @return the decoded sound
+     */
+    public Sound sound(String path) {
+        var sound = sounds.get(path);
+        if (sound == null) {
+            return timed(path, () -> soundReaders.get().readSound(path));
+        }
+        return await(sound);
+    }
+
+    /**
+     * @return the decoding time of every asset, slowest first, and the time until preloading completed
+     */
+    public String timingReport() {
+        var entries = new ArrayList<>(loadNanos.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        long total = 0;
+        var report = new StringBuilder();
+        for (var entry : entries) {
+            total += entry.getValue();
+            report.append(String.format("%8.2f ms  %s%n", entry.getValue() / NANOS_IN_MILLI, entry.getKey()));
+        }
+        long wall = (isLoaded() && loadedNanos != 0 ? loadedNanos : System.nanoTime()) - startNanos;
+        report.insert(0, String.format("assets: %d decoded in %.2f ms, %.2f ms of decoding%n",
+                entries.size(), wall / NANOS_IN_MILLI, total / NANOS_IN_MILLI));
+        return report.toString();
+    }
+
+    /**
+     * @param key    name of the asset
+     * @param loader decodes the asset
+     * @param <T>    type of the asset
+     * @return the asset that will be decoded on a loader thread
+     */
+    private <T> Future<T> submit(String key, Supplier<T> loader) {
+        pending.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                return timed(key, loader);
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    loadedNanos = System.nanoTime();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param key    name of the asset
+     * @param loader decodes the asset
+     * @param <T>    type of the asset
+     * @return the decoded asset
+     */
+    private <T> T timed(String key, Supplier<T> loader) {
+        long start = System.nanoTime();
+        var asset = loader.get();
+        loadNanos.put(key, System.nanoTime() - start);
+        return asset;
+    }
+
+    /**
+     * @param asset asset being decoded
+     * @param <T>   type of the asset
+     * @return the decoded asset
+     */
+    private static <T> T await(Future<T> asset) {
+        try {
+            return asset.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while loading an asset", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed loading an asset", e.getCause());
+        }
+    }
+
+    /**
+     * @param path                  path of the image
+     * @param useTopLeftPixelAsMask true if the top left pixel's color is transparent
+     * @return the key of the image, the same image may be read with and without a mask
+     */
+    private static String key(String path, boolean useTopLeftPixelAsMask) {
+        return useTopLeftPixelAsMask ? path + MASKED_SUFFIX : path;
+    }
+}
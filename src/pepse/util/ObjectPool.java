@@ -0,0 +1,114 @@
+package pepse.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of reusable objects.
+ * Objects may be taken from any thread, but are released on the game thread: a released object
+ * may still be in the game until the removals are flushed, so it only becomes available after
+ * recycleReleased() is called on the next frame.
+ *
+ * @param <T> type of the pooled objects
+ */
+public class ObjectPool<T> {
+    private final String name;
+    private final int capacity;
+    private final ArrayDeque<T> free;
+    private final ArrayList<T> released = new ArrayList<>();
+    private final LongAdder reused = new LongAdder(), created = new LongAdder(), dropped = new LongAdder();
+
+    /**
+     * @param name     name of the pool, for its stats
+     * @param capacity maximal amount of free objects kept
+     */
+    public ObjectPool(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        free = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * @return a free object which the caller must reset, or null if a new one has to be created
+     */
+    public T poll() {
+        T object;
+        synchronized (free) {
+            object = free.pollLast();
+        }
+        if (object == null) {
+            created.increment();
+        } else {
+            reused.increment();
+        }
+        return object;
+    }
+
+    /**
+     * give an object that was removed from the game back to the pool
+     *
+     * @param object the object
+     */
+    public void release(T object) {
+        released.add(object);
+    }
+
+    /**
+     * make the objects released until now available, dropping those above the capacity
+     */
+    public void recycleReleased() {
+        if (released.isEmpty()) {
+            return;
+        }
+        synchronized (free) {
+            for (var object : released) {
+                if (free.size() < capacity) {
+                    free.addLast(object);
+                } else {
+                    dropped.increment();
+                }
+            }
+        }
+        released.clear();
+    }
+
+    /**
+     * @return amount of free objects
+     */
+    public int freeCount() {
+        synchronized (free) {
+            return free.size();
+        }
+    }
+
+    /**
+     * @return amount of objects taken from the pool instead of being created
+     */
+    public long reusedCount() {
+        return reused.sum();
+    }
+
+    /**
+     * @return amount of objects that had to be created since the pool was empty
+     */
+    public long createdCount() {
+        return created.sum();
+    }
+
+    /**
+     * @return amount of released objects thrown away since the pool was full
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the pool's stats
+     */
+    @Override
+    public String toString() {
+        return String.format("%s pool: %d/%d free, %d reused, %d created, %d dropped",
+                name, freeCount(), capacity, reusedCount(), createdCount(), droppedCount());
+    }
+}
@@ -0,0 +1,87 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Draws objects between their positions of the last two simulation steps, so motion looks smooth
+ * when frames aren't drawn exactly on steps. Before a step the tracked objects' centers are saved,
+ * and while a frame is drawn the objects are moved to the blend of the saved and current centers,
+ * then moved back, so the simulation never sees the drawn positions. Objects that draw many members
+ * themselves, the clouds, the flock and the falling leaves, keep their own previous positions and blend
+ * them with interpolate. The wind's sway isn't blended, it turns a leaf by less than a tenth of a degree
+ * a step.
+ */
+public class RenderInterpolator {
+    private final ArrayList<GameObject> objects = new ArrayList<>();
+    private float[] previous = new float[0];
+    private float[] current = new float[0];
+    private float alpha = 1;
+
+    /**
+     * start interpolating an object
+     *
+     * @param object the object
+     */
+    public void track(GameObject object) {
+        objects.add(object);
+        previous = Arrays.copyOf(previous, 2 * objects.size());
+        current = Arrays.copyOf(current, 2 * objects.size());
+        save(objects.size() - 1, previous);
+    }
+
+    /**
+     * saving the centers of the objects, called before every simulation step
+     */
+    public void beforeStep() {
+        for (int i = 0; i < objects.size(); i++) {
+            save(i, previous);
+        }
+    }
+
+    /**
+     * moving the objects to where they are drawn
+     *
+     * @param alpha part of a step that passed since the last step, in [0, 1]
+     */
+    public void apply(float alpha) {
+        this.alpha = alpha;
+        for (int i = 0; i < objects.size(); i++) {
+            save(i, current);
+            float x = previous[2 * i] + (current[2 * i] - previous[2 * i]) * alpha;
+            float y = previous[2 * i + 1] + (current[2 * i + 1] - previous[2 * i + 1]) * alpha;
+            objects.get(i).setCenter(Vector2.of(x, y));
+        }
+    }
+
+    /**
+     * @param previous the value at the previous step
+     * @param current  the value at the last step
+     * @return the value when the frame is drawn, the last step's value until a frame is drawn
+     */
+    public float interpolate(float previous, float current) {
+        return previous + (current - previous) * alpha;
+    }
+
+    /**
+     * moving the objects back to their simulated centers, after the frame was drawn
+     */
+    public void restore() {
+        for (int i = 0; i < objects.size(); i++) {
+            objects.get(i).setCenter(Vector2.of(current[2 * i], current[2 * i + 1]));
+        }
+    }
+
+    /**
+     * @param i       index of the object
+     * @param centers array to save the object's center to
+     */
+    private void save(int i, float[] centers) {
+        var center = objects.get(i).getCenter();
+        centers[2 * i] = center.x();
+        centers[2 * i + 1] = center.y();
+    }
+}
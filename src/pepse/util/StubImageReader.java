@@ -0,0 +1,32 @@
+package pepse.util;
+
+import danogl.gui.ImageReader;
+import danogl.gui.rendering.ImageRenderable;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Image reader that never touches the disk or a window, every image is the same transparent pixel.
+ * Used to run the game's code without a display, in benchmarks and simulations.
+ */
+public class StubImageReader extends ImageReader {
+    private static final ImageRenderable EMPTY_IMAGE =
+            new ImageRenderable(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+
+    /**
+     * constructor
+     */
+    public StubImageReader() {
+        super(null);
+    }
+
+    /**
+     * @param imageFilePath          path of the image, ignored
+     * @param useTopLeftPixelAsMask  ignored
+     * @return a transparent pixel
+     */
+    @Override
+    public ImageRenderable readImage(String imageFilePath, boolean useTopLeftPixelAsMask) {
+        return EMPTY_IMAGE;
+    }
+}
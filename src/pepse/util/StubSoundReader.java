@@ -0,0 +1,30 @@
+package pepse.util;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+
+import javax.sound.sampled.Clip;
+
+/**
+ * Sound reader that never opens an audio line, every sound is silent.
+ * Used to run the game's code without a display, in benchmarks and simulations.
+ */
+public class StubSoundReader extends SoundReader {
+    private static final Sound SILENCE = new Sound(new Clip[0]);
+
+    /**
+     * constructor
+     */
+    public StubSoundReader() {
+        super(null);
+    }
+
+    /**
+     * @param soundFilePath path of the sound, ignored
+     * @return a silent sound
+     */
+    @Override
+    public Sound readSound(String soundFilePath) {
+        return SILENCE;
+    }
+}
@@ -0,0 +1,97 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+public class AttachQueue {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int OBJECTS_BETWEEN_CLOCK_CHECKS = 32;
+
+    private final ArrayList<GameObject> objects = new ArrayList<>(INITIAL_CAPACITY);
+    private final Set<GameObject> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private int next = 0;
+    private int addedCount = 0;
+
+    /**
+     * queue a game object to be added later on the game thread,
+     * an object that was already queued is rejected
+     *
+     * @param gameObject game object
+     * @param layer      layer of the object in the game
+     * @return true if the object was queued, false if it's a duplicate
+     */
+    public boolean add(GameObject gameObject, int layer) {
+        if (!queued.add(gameObject)) {
+            return false;
+        }
+        if (objects.size() == layers.length) {
+            layers = Arrays.copyOf(layers, layers.length * 2);
+        }
+        layers[objects.size()] = layer;
+        objects.add(gameObject);
+        return true;
+    }
+
+    /**
+     * adding queued objects to the game until the deadline passes
+     *
+     * @param gameObjects   collection of game objects
+     * @param deadlineNanos System.nanoTime() value to stop at
+     * @return true if every queued object was added
+     */
+    public boolean flushInto(GameObjectCollection gameObjects, long deadlineNanos) {
+        while (next < objects.size()) {
+            gameObjects.addGameObject(objects.get(next), layers[next]);
+            next++;
+            addedCount++;
+            if (next % OBJECTS_BETWEEN_CLOCK_CHECKS == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+        if (next < objects.size()) {
+            return false;
+        }
+        objects.clear();
+        next = 0;
+        return true;
+    }
+
+    /**
+     * adding all queued objects to the game
+     *
+     * @param gameObjects collection of game objects
+     */
+    public void flushInto(GameObjectCollection gameObjects) {
+        flushInto(gameObjects, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return true if there are no objects waiting to be added
+     */
+    public boolean isEmpty() {
+        return next == objects.size();
+    }
+
+    /**
+     * @return amount of objects added to the game through this queue
+     */
+    public int addedCount() {
+        return addedCount;
+    }
+
+    /**
+     * dropping all objects that weren't added yet, and forgetting the added ones
+     */
+    public void clear() {
+        objects.clear();
+        queued.clear();
+        next = 0;
+    }
+}
@@ -11,6 +11,7 @@ import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.AssetCache;
 
 import java.awt.event.KeyEvent;
 
@@ -42,28 +43,43 @@ public class Avatar extends GameObject {
             TIME_BETWEEN_RUN_SPRITES = 0.12,
             TIME_BETWEEN_FLY_SPRITES = 0.15,
             TIME_BETWEEN_FALL_SPRITES = 0.1;
-    private static final double ENERGY_INCREASE_FACTOR = 0.5;
-    private static final double ENERGY_DECREASE_FACTOR = -ENERGY_INCREASE_FACTOR;
+    private static final double ENERGY_GAIN_PER_SECOND = 35;
+    private static final double ENERGY_LOSS_PER_SECOND = ENERGY_GAIN_PER_SECOND;
 
     private final UserInputListener inputListener;
     private final Renderable idleSprite, runSprite, flySprite, fallSprite;
     private final Sound jumpSound, landSound, wingFlapSound;
+    private final HeightFieldCollider groundCollider;
 
     private double flyingEnergy = MAX_ENERGY;
     private boolean isFlying = false, didLandAlready = true, isFlapSoundOn = false;
     private static Avatar avatar;
 
+    /**
+     * start decoding the avatar's sprites and sounds in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(false, IDLE_SPRITE);
+        assets.preloadImages(false, RUNNING_SPRITE);
+        assets.preloadImages(false, FLYING_SPRITES);
+        assets.preloadImages(false, FALLING_SPRITE);
+        assets.preloadSounds(JUMP_SOUND_PATH, LAND_SOUND_PATH, WING_FLAP_SOUND_PATH);
+    }
+
     /**
      * @param gameObjects   game objects
      * @param layer         layer
      * @param topLeftCorner location
      * @param inputListener input listener
      * @param imageReader   image reader
+     * @param seed          the seed of the terrain
      * @return an avatar
      */
     public static Avatar create(GameObjectCollection gameObjects, int layer, Vector2 topLeftCorner,
-                                  UserInputListener inputListener, ImageReader imageReader) {
-        avatar = Avatar.myCreate(topLeftCorner, inputListener, imageReader, null);
+                                  UserInputListener inputListener, ImageReader imageReader, int seed) {
+        avatar = Avatar.myCreate(topLeftCorner, inputListener, imageReader, null, seed);
         return avatar;
     }
 
@@ -72,11 +88,12 @@ public class Avatar extends GameObject {
      * @param inputListener input listener
      * @param imageReader   image reader
      * @param soundReader   sound reader
+     * @param seed          the seed of the terrain
      * @return an avatar
      */
     public static Avatar myCreate(Vector2 topLeftCorner, UserInputListener inputListener,
-                                  ImageReader imageReader, SoundReader soundReader) {
-        avatar = new Avatar(topLeftCorner, inputListener, imageReader, soundReader);
+                                  ImageReader imageReader, SoundReader soundReader, int seed) {
+        avatar = new Avatar(topLeftCorner, inputListener, imageReader, soundReader, seed);
         return avatar;
     }
 
@@ -85,9 +102,12 @@ public class Avatar extends GameObject {
      * @param inputListener input listener
      * @param imageReader   image reader
      * @param soundReader   sound reader
+     * @param seed          the seed of the terrain
      */
-    private Avatar(Vector2 pos, UserInputListener inputListener, ImageReader imageReader, SoundReader soundReader) {
+    private Avatar(Vector2 pos, UserInputListener inputListener, ImageReader imageReader, SoundReader soundReader,
+                   int seed) {
         super(pos, DIMENSIONS, null);
+        groundCollider = new HeightFieldCollider(seed);
         jumpSound = soundReader.readSound(JUMP_SOUND_PATH);
         landSound = soundReader.readSound(LAND_SOUND_PATH);
         wingFlapSound = soundReader.readSound(WING_FLAP_SOUND_PATH);
@@ -115,6 +135,8 @@ public class Avatar extends GameObject {
     }
 
     /**
+     * standing on a trunk, the terrain doesn't collide with the avatar
+     *
      * @param other     collided game object
      * @param collision collision
      */
@@ -124,31 +146,56 @@ public class Avatar extends GameObject {
         if (getVelocity().y() != 0) {
             return;
         }
-        isFlying = false;
-        if (didLandAlready) {
-            return;
-        }
-        landSound.play();
-        didLandAlready = true;
+        standOnGround();
     }
 
     /**
+     * moving the avatar, keeping it on top of the terrain, and handling the input
+     *
      * @param deltaTime delta time
      */
     @Override
     public void update(float deltaTime) {
+        float previousLeft = getTopLeftCorner().x();
+        float previousBottom = getTopLeftCorner().y() + DIMENSIONS.y();
         super.update(deltaTime);
+        groundCollider.resolve(this, previousLeft, previousBottom);
+        if (groundCollider.isGrounded()) {
+            standOnGround();
+        }
         walkIfNeeded();
         jumpIfNeeded();
-        flyIfNeeded();
+        flyIfNeeded(deltaTime);
         if (flyingEnergy == 0) {
             renderer().setRenderable(fallSprite);
         }
         if (!isFlying) {
-            flyingEnergy += flyingEnergy < MAX_ENERGY ? ENERGY_INCREASE_FACTOR : 0;
+            flyingEnergy = Math.min(MAX_ENERGY, flyingEnergy + ENERGY_GAIN_PER_SECOND * deltaTime);
+        }
+        if (groundCollider.didLand() && flyingEnergy == 0) {
+            renderer().setRenderable(idleSprite);
         }
     }
 
+    /**
+     * @return true if the avatar stood on the terrain in the last frame
+     */
+    public boolean isGrounded() {
+        return groundCollider.isGrounded();
+    }
+
+    /**
+     * stop flying, and play the landing sound once after a jump
+     */
+    private void standOnGround() {
+        isFlying = false;
+        if (didLandAlready) {
+            return;
+        }
+        landSound.play();
+        didLandAlready = true;
+    }
+
     /**
      * @return current flying energy
      */
@@ -201,8 +248,10 @@ public class Avatar extends GameObject {
 
     /**
      * make the avatar fly
+     *
+     * @param deltaTime time since the last frame
      */
-    private void flyIfNeeded() {
+    private void flyIfNeeded(float deltaTime) {
         if (!inputListener.isKeyPressed(KeyEvent.VK_SPACE) || !inputListener.isKeyPressed(KeyEvent.VK_SHIFT)) {
             wingFlapSound.stopAllOccurences();
             isFlapSoundOn = false;
@@ -216,7 +265,7 @@ public class Avatar extends GameObject {
         }
         renderer().setRenderable(flySprite);
         transform().setVelocityY(-1 * WALKING_SPEED);
-        flyingEnergy += ENERGY_DECREASE_FACTOR;
+        flyingEnergy = Math.max(0, flyingEnergy - ENERGY_LOSS_PER_SECOND * deltaTime);
         if (!isFlapSoundOn) {
             wingFlapSound.playLooped();
             isFlapSoundOn = true;
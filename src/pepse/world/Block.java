@@ -4,10 +4,13 @@ import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 
 public class Block extends GameObject {
 
     public static final int SIZE = 30;
+    public static final ObjectPool<Block> POOL = new ObjectPool<>("block", 4096);
+    private static final Vector2 DIMENSIONS = Vector2.ONES.mult(SIZE);
 
     /**
      * constructor
@@ -16,7 +19,41 @@ public class Block extends GameObject {
      * @param renderable    renderable
      */
     public Block(Vector2 topLeftCorner, Renderable renderable) {
-        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+        super(topLeftCorner, DIMENSIONS, renderable);
+        physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+    }
+
+    /**
+     * @param topLeftCorner top left corner
+     * @param renderable    renderable
+     * @return a block from the pool, or a new one if the pool is empty
+     */
+    public static Block obtain(Vector2 topLeftCorner, Renderable renderable) {
+        var block = POOL.poll();
+        if (block == null) {
+            return new Block(topLeftCorner, renderable);
+        }
+        block.reset(topLeftCorner, renderable);
+        return block;
+    }
+
+    /**
+     * bring a block that was removed from the game back to its initial state, at a new location
+     *
+     * @param topLeftCorner top left corner
+     * @param renderable    renderable
+     */
+    protected void reset(Vector2 topLeftCorner, Renderable renderable) {
+        setTopLeftCorner(topLeftCorner);
+        setDimensions(DIMENSIONS);
+        setVelocity(Vector2.ZERO);
+        transform().setAcceleration(Vector2.ZERO);
+        renderer().setRenderable(renderable);
+        renderer().setRenderableAngle(0);
+        renderer().setOpaqueness(1);
+        renderer().setIsFlippedHorizontally(false);
+        renderer().setIsFlippedVertically(false);
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
@@ -0,0 +1,210 @@
+package pepse.world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the data of generated chunks in a file per seed, read back through a memory mapped FileChannel,
+ * so chunks that were generated before, in this run or an earlier one, are read instead of generated again.
+ * The file has a header with the format version, seed, chunk width and amount of slots, followed by
+ * fixed size slots. A chunk goes to the slot of its index modulo the amount of slots, so the file never
+ * grows past its size limit, and a new chunk evicts the chunk that was in its slot. The directory keeps the
+ * files of the few seeds that were opened last, older seeds' files are deleted.
+ */
+public class ChunkCache {
+    public static final String ENABLED_PROPERTY = "pepse.chunkCache";
+    public static final String DIRECTORY_PROPERTY = "pepse.chunkCache.dir";
+    public static final String MAX_BYTES_PROPERTY = "pepse.chunkCache.maxBytes";
+    public static final String MAX_FILES_PROPERTY = "pepse.chunkCache.maxFiles";
+    public static final int VERSION = 1;
+    private static final int MAGIC = 0x50455053;
+    private static final long DEFAULT_MAX_BYTES = 8 << 20;
+    private static final int DEFAULT_MAX_FILES = 4;
+    private static final String FILE_PREFIX = "chunks-", FILE_SUFFIX = ".bin";
+    private static final String DEFAULT_DIRECTORY = ".pepse";
+    private static final int HEADER_INTS = 5;
+    private static final int HEADER_BYTES = HEADER_INTS * Integer.BYTES;
+    private static final int SLOT_HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+    private static final byte USED = 1;
+
+    private final MappedByteBuffer map;
+    private final int chunkColumns;
+    private final int slotBytes;
+    private final int slotCount;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    /**
+     * mapping the file, and clearing it if it was written with another format, seed or size
+     *
+     * @param path         path of the file
+     * @param seed         the seed
+     * @param chunkColumns amount of block columns in a chunk
+     * @param maxBytes     maximal size of the file
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public ChunkCache(Path path, int seed, int chunkColumns, long maxBytes) throws IOException {
+        this.chunkColumns = chunkColumns;
+        slotBytes = SLOT_HEADER_BYTES + ChunkData.byteSize(chunkColumns);
+        slotCount = (int) Math.max(1, (Math.min(maxBytes, Integer.MAX_VALUE) - HEADER_BYTES) / slotBytes);
+        long size = HEADER_BYTES + (long) slotBytes * slotCount;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        int[] header = {MAGIC, VERSION, seed, chunkColumns, slotCount};
+        if (!hasHeader(header)) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                map.put(slotOffset(slot) + Integer.BYTES, (byte) 0);
+            }
+            for (int i = 0; i < HEADER_INTS; i++) {
+                map.putInt(i * Integer.BYTES, header[i]);
+            }
+        }
+    }
+
+    /**
+     * opening the cache of a seed in the directory of the pepse.chunkCache.dir system property,
+     * or ~/.pepse if it isn't set, and deleting the files of the seeds opened least recently
+     * beyond the pepse.chunkCache.maxFiles newest
+     *
+     * @param seed             the seed
+     * @param chunkColumns     amount of block columns in a chunk
+     * @param isEnabledDefault whether to open the cache if the pepse.chunkCache system property isn't set
+     * @return the cache, or null if it's disabled or the file can't be opened
+     */
+    public static ChunkCache open(int seed, int chunkColumns, boolean isEnabledDefault) {
+        var enabled = System.getProperty(ENABLED_PROPERTY);
+        if (enabled == null ? !isEnabledDefault : !Boolean.parseBoolean(enabled)) {
+            return null;
+        }
+        var directory = Path.of(System.getProperty(DIRECTORY_PROPERTY,
+                Path.of(System.getProperty("user.home"), DEFAULT_DIRECTORY).toString()));
+        var path = directory.resolve(FILE_PREFIX + seed + FILE_SUFFIX);
+        long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+        try {
+            var cache = new ChunkCache(path, seed, chunkColumns, maxBytes);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            deleteOldestFiles(directory, Integer.getInteger(MAX_FILES_PROPERTY, DEFAULT_MAX_FILES));
+            return cache;
+        } catch (IOException e) {
+            System.err.println("chunk cache disabled, can't open " + path + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * deleting the cache files in a directory, least recently opened first, until at most maxFiles are left
+     *
+     * @param directory directory of the files
+     * @param maxFiles  amount of files to keep
+     * @throws IOException if the directory can't be listed
+     */
+    static void deleteOldestFiles(Path directory, int maxFiles) throws IOException {
+        var files = new ArrayList<Path>();
+        try (var stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= maxFiles) {
+            return;
+        }
+        var openedTimes = new HashMap<Path, FileTime>();
+        for (var file : files) {
+            openedTimes.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(openedTimes::get));
+        for (var file : files.subList(0, files.size() - Math.max(maxFiles, 1))) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @return amount of block columns in a chunk
+     */
+    public int chunkColumns() {
+        return chunkColumns;
+    }
+
+    /**
+     * @param chunk index of the chunk
+     * @return a copy of the chunk's data in the file, or null if it isn't cached. The bytes are copied
+     * while the cache is locked, since another generator thread may write the slot right after
+     */
+    public synchronized ChunkData get(int chunk) {
+        int offset = slotOffset(Math.floorMod(chunk, slotCount));
+        if (map.get(offset + Integer.BYTES) != USED || map.getInt(offset) != chunk) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        var slot = map.duplicate();
+        slot.position(offset + SLOT_HEADER_BYTES).limit(offset + slotBytes);
+        var copy = ByteBuffer.allocate(slotBytes - SLOT_HEADER_BYTES).put(slot);
+        return new ChunkData(copy.clear(), chunk * chunkColumns, chunkColumns);
+    }
+
+    /**
+     * writing a chunk's data to its slot, evicting the chunk that was there
+     *
+     * @param chunk index of the chunk
+     * @param data  data of the chunk's columns
+     */
+    public synchronized void put(int chunk, ChunkData data) {
+        int offset = slotOffset(Math.floorMod(chunk, slotCount));
+        map.put(offset + Integer.BYTES, (byte) 0);
+        data.copyTo(map, offset + SLOT_HEADER_BYTES);
+        map.putInt(offset, chunk);
+        map.put(offset + Integer.BYTES, USED);
+    }
+
+    /**
+     * @return amount of chunks the file holds
+     */
+    public int capacity() {
+        return slotCount;
+    }
+
+    /**
+     * @return hit rate of the cache
+     */
+    @Override
+    public String toString() {
+        long hitCount = hits.sum(), total = hitCount + misses.sum();
+        return String.format("chunk cache: %.1f%% hits of %d lookups, %d slots",
+                total == 0 ? 0 : hitCount * 100.0 / total, total, slotCount);
+    }
+
+    /**
+     * @param header the expected header
+     * @return true if the file starts with the header
+     */
+    private boolean hasHeader(int[] header) {
+        for (int i = 0; i < HEADER_INTS; i++) {
+            if (map.getInt(i * Integer.BYTES) != header[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param slot index of the slot
+     * @return index of the slot's first byte in the file
+     */
+    private int slotOffset(int slot) {
+        return HEADER_BYTES + slot * slotBytes;
+    }
+}
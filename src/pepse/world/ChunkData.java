@@ -0,0 +1,125 @@
+package pepse.world;
+
+import pepse.world.trees.Tree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The generated data of a run of columns, everything that is needed to build their objects:
+ * the ground height of each column, and the trunk length and treetop leaf mask of the tree growing from it.
+ * The data lives in a byte buffer in a fixed layout per column, so it's the same whether it was
+ * just generated or is a view of a memory mapped chunk cache.
+ */
+public class ChunkData {
+    public static final int MAX_TREETOP_CELLS = 2 * Long.SIZE;
+    static final int COLUMN_BYTES = Integer.BYTES + Byte.BYTES + 2 * Long.BYTES;
+    private static final int TRUNK_LENGTH_OFFSET = Integer.BYTES;
+    private static final int LEAF_MASK_OFFSET = TRUNK_LENGTH_OFFSET + Byte.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int firstColumn;
+    private final int columns;
+
+    /**
+     * @param buffer      buffer holding the columns from index 0
+     * @param firstColumn index of the first column
+     * @param columns     amount of columns
+     */
+    ChunkData(ByteBuffer buffer, int firstColumn, int columns) {
+        this.buffer = buffer;
+        this.firstColumn = firstColumn;
+        this.columns = columns;
+    }
+
+    /**
+     * generating the data of a run of columns
+     *
+     * @param firstColumn index of the first column
+     * @param columns     amount of columns
+     * @param seed        the seed
+     * @return the data of the columns
+     */
+    public static ChunkData generate(int firstColumn, int columns, int seed) {
+        var data = new ChunkData(ByteBuffer.allocate(byteSize(columns)), firstColumn, columns);
+        var heights = new int[columns];
+        HeightField.fill(firstColumn, seed, heights);
+        for (int i = 0; i < columns; i++) {
+            data.buffer.putInt(i * COLUMN_BYTES, heights[i]);
+        }
+        Tree.plan(data, seed);
+        return data;
+    }
+
+    /**
+     * @param columns amount of columns
+     * @return size of the data of the columns in bytes
+     */
+    public static int byteSize(int columns) {
+        return columns * COLUMN_BYTES;
+    }
+
+    /**
+     * @return index of the first column
+     */
+    public int firstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * @return amount of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * @param i index of the column in the data
+     * @return the ground height of the column
+     */
+    public int height(int i) {
+        return buffer.getInt(i * COLUMN_BYTES);
+    }
+
+    /**
+     * @param i index of the column in the data
+     * @return length of the trunk growing from the column, 0 if there's no tree
+     */
+    public int trunkLength(int i) {
+        return buffer.get(i * COLUMN_BYTES + TRUNK_LENGTH_OFFSET);
+    }
+
+    /**
+     * @param i    index of the column in the data
+     * @param cell index of the cell in the column's treetop
+     * @return true if the cell has a leaf
+     */
+    public boolean hasLeaf(int i, int cell) {
+        long word = buffer.getLong(i * COLUMN_BYTES + LEAF_MASK_OFFSET + (cell / Long.SIZE) * Long.BYTES);
+        return (word & (1L << cell)) != 0;
+    }
+
+    /**
+     * @param i           index of the column in the data
+     * @param trunkLength length of the trunk growing from the column
+     * @param leafMask    the cells of the treetop that have leaves, MAX_TREETOP_CELLS bits
+     */
+    public void setTree(int i, int trunkLength, long[] leafMask) {
+        int offset = i * COLUMN_BYTES;
+        buffer.put(offset + TRUNK_LENGTH_OFFSET, (byte) trunkLength);
+        for (int word = 0; word < leafMask.length; word++) {
+            buffer.putLong(offset + LEAF_MASK_OFFSET + word * Long.BYTES, leafMask[word]);
+        }
+    }
+
+    /**
+     * copying the data to a buffer, in the same layout
+     *
+     * @param target buffer to copy to
+     * @param offset index in the buffer to copy to
+     */
+    void copyTo(ByteBuffer target, int offset) {
+        var source = buffer.duplicate();
+        source.clear().limit(byteSize(columns));
+        target.duplicate().position(offset).put(source);
+    }
+}
@@ -0,0 +1,136 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.util.Vector2;
+import pepse.util.RenderInterpolator;
+
+import java.awt.*;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Clouds drifting across the sky at several depths, the farther a cloud is the smaller and slower it is,
+ * and the less it moves when the camera moves. The clouds are a fixed pool of slots in parallel arrays,
+ * a cloud that leaves the camera's view on one side comes back into the other side as a new cloud from
+ * the seeded random, so the field never allocates, and the whole field is drawn by one renderable.
+ */
+public class CloudField extends GameObject {
+    private static final String TAG = "clouds";
+    private static final float CLOUD_SIZE = 150;
+    private static final float MIN_SPEED = 70, MAX_SPEED = 80;
+    private static final float MIN_HEIGHT_FACTOR = 0.01f, MAX_HEIGHT_FACTOR = 0.15f;
+    private static final float NEAREST_PARALLAX = 0.3f;
+
+    private final Image[] images;
+    private final ViewBounds viewBounds;
+    private final RenderInterpolator interpolator;
+    private final Random random;
+    private final float span;
+    private final float[] xs, previousXs, ys, distances, speeds;
+    private final int[] imageIndices;
+    private float lastViewLeft;
+
+    /**
+     * @param windowDimensions window dimensions
+     * @param images           images of the clouds
+     * @param count            amount of clouds
+     * @param depth            how much farther than the nearest clouds the farthest clouds are, 0 for
+     *                         all of them at the same depth
+     * @param seed             the seed
+     * @param viewBounds       the camera's view
+     * @param interpolator     draws the clouds between the last two steps
+     */
+    public CloudField(Vector2 windowDimensions, Image[] images, int count, float depth, int seed,
+                      ViewBounds viewBounds, RenderInterpolator interpolator) {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.images = images;
+        this.viewBounds = viewBounds;
+        this.interpolator = interpolator;
+        random = new Random(Objects.hash(TAG, seed));
+        span = windowDimensions.x() + 2 * CLOUD_SIZE;
+        xs = new float[count];
+        previousXs = new float[count];
+        ys = new float[count];
+        distances = new float[count];
+        speeds = new float[count];
+        imageIndices = new int[count];
+        lastViewLeft = viewBounds.viewLeft();
+        for (int i = 0; i < count; i++) {
+            distances[i] = 1 + depth * (count - 1 - i) / Math.max(1, count - 1);
+            xs[i] = random.nextFloat() * span - CLOUD_SIZE;
+            previousXs[i] = xs[i];
+            respawn(i);
+        }
+        renderer().setRenderable(this::drawClouds);
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        setTag(TAG);
+    }
+
+    /**
+     * @return amount of clouds
+     */
+    public int cloudCount() {
+        return xs.length;
+    }
+
+    /**
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        float viewLeft = viewBounds.viewLeft();
+        float cameraDelta = viewLeft - lastViewLeft;
+        lastViewLeft = viewLeft;
+        for (int i = 0; i < xs.length; i++) {
+            float x = xs[i] + speeds[i] * deltaTime - cameraDelta * NEAREST_PARALLAX / distances[i];
+            previousXs[i] = xs[i];
+            if (x < -CLOUD_SIZE || x >= span - CLOUD_SIZE) {
+                x = (x + CLOUD_SIZE) % span;
+                x = (x < 0 ? x + span : x) - CLOUD_SIZE;
+                previousXs[i] = x;
+                respawn(i);
+            }
+            xs[i] = x;
+        }
+    }
+
+    /**
+     * giving a slot a new cloud, at the slot's depth
+     *
+     * @param i index of the slot
+     */
+    private void respawn(int i) {
+        float heightFactor = MIN_HEIGHT_FACTOR + random.nextFloat() * (MAX_HEIGHT_FACTOR - MIN_HEIGHT_FACTOR);
+        ys[i] = getDimensions().y() * heightFactor;
+        speeds[i] = (MIN_SPEED + random.nextFloat() * (MAX_SPEED - MIN_SPEED)) / distances[i];
+        imageIndices[i] = random.nextInt(images.length);
+    }
+
+    /**
+     * drawing all the clouds, the farthest first, between their places of the last two steps
+     *
+     * @param g                     graphics of the frame
+     * @param topLeftCorner         top left corner of the field on the screen
+     * @param dimensions            dimensions of the field
+     * @param renderableAngle       ignored, the field doesn't rotate
+     * @param isFlippedHorizontally ignored
+     * @param isFlippedVertically   ignored
+     * @param opaqueness            opacity of the clouds
+     */
+    private void drawClouds(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double renderableAngle,
+                            boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        var composite = g.getComposite();
+        if (opaqueness < 1) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        }
+        for (int i = 0; i < xs.length; i++) {
+            int size = Math.round(CLOUD_SIZE / distances[i]);
+            float x = interpolator.interpolate(previousXs[i], xs[i]);
+            g.drawImage(images[imageIndices[i]], Math.round(topLeftCorner.x() + x),
+                    Math.round(topLeftCorner.y() + ys[i]), size, size, null);
+        }
+        g.setComposite(composite);
+    }
+}
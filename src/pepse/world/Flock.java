@@ -0,0 +1,359 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.ImageReader;
+import danogl.util.Vector2;
+import pepse.util.AssetCache;
+import pepse.util.RenderInterpolator;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static pepse.GraphicManager.*;
+
+/**
+ * A flock of birds steering by cohesion, alignment and separation with their neighbors,
+ * while cruising in the flock's direction at its altitude.
+ * The birds' state lives in parallel arrays, and a bird's neighbors are found through a spatial hash
+ * rebuilt every frame, so an update is linear in the amount of birds. The steering of every bird is
+ * computed from the previous frame's state only, so large flocks steer in parallel with the same result.
+ * The whole flock is one object drawn by one renderable, the birds share the frames of one animation,
+ * each bird at its own offset in it, and each bird is drawn between its places of the last two frames.
+ */
+public class Flock extends GameObject {
+    public static final int BIRD_COUNT = Integer.getInteger("pepse.birds", 12);
+    public static final int PARALLEL_THRESHOLD = 1024;
+    private static final String TAG = "flock";
+    private static final String[] BIRD_IMAGES = {"assets/bird/bird0.png",
+                                                 "assets/bird/bird1.png",
+                                                 "assets/bird/bird2.png",
+                                                 "assets/bird/bird3.png",
+                                                 "assets/bird/bird4.png",
+                                                 "assets/bird/bird5.png",
+                                                 "assets/bird/bird6.png"};
+    private static final float TIME_BETWEEN_BIRD_IMAGES = 0.07f;
+    private static final Vector2 BIRD_DIMENSIONS = Vector2.of(55, 51.714f);
+    private static final Vector2 FLOCK_START_PLACE = Vector2.of(WINDOW_WIDTH / -1.5f, WINDOW_HEIGHT * 0.05f);
+    private static final float RESPAWN_MARGIN = 150;
+    private static final float CRUISE_SPEED = 250, MIN_SPEED = 150, MAX_SPEED = 320;
+    private static final float NEIGHBOR_RADIUS = 80, SEPARATION_RADIUS = 40;
+    private static final int MAX_NEIGHBORS = 24;
+    private static final float BIRD_SPACING = 40;
+    private static final float ALTITUDE_BAND = 60;
+    private static final float
+            COHESION_WEIGHT = 1,
+            ALIGNMENT_WEIGHT = 2,
+            SEPARATION_WEIGHT = 8000,
+            CRUISE_WEIGHT = 1.5f,
+            ALTITUDE_WEIGHT = 2;
+    private static final int HASH_ROWS = 8;
+
+    private final Image[] frames;
+    private final int count;
+    private final float altitude;
+    private final RenderInterpolator interpolator;
+    private float[] xs, ys, vxs, vys, nextVxs, nextVys;
+    private final float[] previousXs, previousYs;
+    private final float[] frameOffsets;
+    private final int[] cellOfBird, cellStart, cellCursor, birdsByCell;
+    private final int hashColumns;
+    private float direction = 1;
+    private float time = 0;
+    private float stepTime;
+    private float minX, minY, maxX, maxY;
+
+    /**
+     * @param frames       frames of the birds' animation
+     * @param count        amount of birds
+     * @param start        top left corner of the flock's area at the beginning
+     * @param seed         the seed
+     * @param interpolator draws the birds between the last two frames
+     */
+    public Flock(Image[] frames, int count, Vector2 start, int seed, RenderInterpolator interpolator) {
+        super(start, BIRD_DIMENSIONS, null);
+        this.frames = frames;
+        this.count = count;
+        this.interpolator = interpolator;
+        altitude = start.y() + ALTITUDE_BAND;
+        xs = new float[count];
+        ys = new float[count];
+        previousXs = new float[count];
+        previousYs = new float[count];
+        vxs = new float[count];
+        vys = new float[count];
+        nextVxs = new float[count];
+        nextVys = new float[count];
+        frameOffsets = new float[count];
+        hashColumns = Integer.highestOneBit(Math.max(4, 2 * count / HASH_ROWS - 1)) << 1;
+        cellOfBird = new int[count];
+        cellStart = new int[hashColumns * HASH_ROWS + 1];
+        cellCursor = new int[hashColumns * HASH_ROWS];
+        birdsByCell = new int[count];
+        var random = new Random(Objects.hash(TAG, seed));
+        float width = count * BIRD_SPACING * BIRD_SPACING / (2 * ALTITUDE_BAND);
+        for (int i = 0; i < count; i++) {
+            xs[i] = start.x() - random.nextFloat() * width;
+            ys[i] = start.y() + random.nextFloat() * 2 * ALTITUDE_BAND;
+            vxs[i] = CRUISE_SPEED;
+            vys[i] = 0;
+            frameOffsets[i] = random.nextFloat() * frames.length;
+            previousXs[i] = xs[i];
+            previousYs[i] = ys[i];
+        }
+        renderer().setRenderable(this::drawBirds);
+        setTag(TAG);
+        updateBounds();
+    }
+
+    /**
+     * start decoding the birds' images in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(false, BIRD_IMAGES);
+    }
+
+    /**
+     * @param gameObjects  collection of game objects
+     * @param imageReader  image reader
+     * @param seed         the seed
+     * @param interpolator draws the birds between the last two frames
+     * @return the flock
+     */
+    public static Flock create(GameObjectCollection gameObjects, ImageReader imageReader, int seed,
+                               RenderInterpolator interpolator) {
+        var frames = new Image[BIRD_IMAGES.length];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = imageReader.readImage(BIRD_IMAGES[i], false).getImage();
+        }
+        var flock = new Flock(frames, BIRD_COUNT, FLOCK_START_PLACE, seed, interpolator);
+        gameObjects.addGameObject(flock, CLOUDS_LAYER);
+        return flock;
+    }
+
+    /**
+     * @return amount of birds
+     */
+    public int birdCount() {
+        return count;
+    }
+
+    /**
+     * turning the flock back once it's farther than a distance from a point, and moving it
+     * that distance behind the point, so it flies past the point again
+     *
+     * @param x        X coordinate of the point
+     * @param distance distance the flock may fly away from the point
+     */
+    public void returnTo(float x, float distance) {
+        float centerX = (minX + maxX) / 2;
+        if (Math.abs(x - centerX) < distance + RESPAWN_MARGIN) {
+            return;
+        }
+        direction = -direction;
+        float shift = x - direction * distance - centerX;
+        for (int i = 0; i < count; i++) {
+            xs[i] += shift;
+            previousXs[i] += shift;
+            vxs[i] = -vxs[i];
+        }
+        updateBounds();
+    }
+
+    /**
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        time += deltaTime;
+        stepTime = deltaTime;
+        hashBirds();
+        if (count >= PARALLEL_THRESHOLD) {
+            IntStream.range(0, count).parallel().forEach(this::steer);
+        } else {
+            for (int i = 0; i < count; i++) {
+                steer(i);
+            }
+        }
+        System.arraycopy(xs, 0, previousXs, 0, count);
+        System.arraycopy(ys, 0, previousYs, 0, count);
+        float[] swap = vxs;
+        vxs = nextVxs;
+        nextVxs = swap;
+        swap = vys;
+        vys = nextVys;
+        nextVys = swap;
+        for (int i = 0; i < count; i++) {
+            xs[i] += vxs[i] * deltaTime;
+            ys[i] += vys[i] * deltaTime;
+        }
+        updateBounds();
+    }
+
+    /**
+     * sorting the birds by the cell of the hash they're in, with a counting sort
+     */
+    private void hashBirds() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < count; i++) {
+            int cell = cellOf(cellX(xs[i]), cellY(ys[i]));
+            cellOfBird[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int cell = 0; cell < cellCursor.length; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+            cellCursor[cell] = cellStart[cell];
+        }
+        for (int i = 0; i < count; i++) {
+            birdsByCell[cellCursor[cellOfBird[i]]++] = i;
+        }
+    }
+
+    /**
+     * computing a bird's next velocity from its neighbors in the 3x3 cells around it.
+     * The hash wraps around, so far away birds may share a cell, they're skipped by their distance
+     *
+     * @param i index of the bird
+     */
+    private void steer(int i) {
+        float x = xs[i], y = ys[i], vx = vxs[i], vy = vys[i];
+        float sumX = 0, sumY = 0, sumVx = 0, sumVy = 0, separationX = 0, separationY = 0;
+        int neighbors = 0;
+        int cellX = cellX(x), cellY = cellY(y);
+        for (int dy = -1; dy <= 1 && neighbors < MAX_NEIGHBORS; dy++) {
+            for (int dx = -1; dx <= 1 && neighbors < MAX_NEIGHBORS; dx++) {
+                int cell = cellOf(cellX + dx, cellY + dy);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1] && neighbors < MAX_NEIGHBORS; k++) {
+                    int j = birdsByCell[k];
+                    float offsetX = xs[j] - x, offsetY = ys[j] - y;
+                    float distanceSquared = offsetX * offsetX + offsetY * offsetY;
+                    if (j == i || distanceSquared >= NEIGHBOR_RADIUS * NEIGHBOR_RADIUS) {
+                        continue;
+                    }
+                    neighbors++;
+                    sumX += offsetX;
+                    sumY += offsetY;
+                    sumVx += vxs[j];
+                    sumVy += vys[j];
+                    if (distanceSquared < SEPARATION_RADIUS * SEPARATION_RADIUS && distanceSquared > 0) {
+                        separationX -= offsetX / distanceSquared;
+                        separationY -= offsetY / distanceSquared;
+                    }
+                }
+            }
+        }
+        float ax = CRUISE_WEIGHT * (direction * CRUISE_SPEED - vx);
+        float ay = altitudeCorrection(y) - CRUISE_WEIGHT * vy;
+        if (neighbors > 0) {
+            ax += COHESION_WEIGHT * sumX / neighbors + ALIGNMENT_WEIGHT * (sumVx / neighbors - vx)
+                    + SEPARATION_WEIGHT * separationX;
+            ay += COHESION_WEIGHT * sumY / neighbors + ALIGNMENT_WEIGHT * (sumVy / neighbors - vy)
+                    + SEPARATION_WEIGHT * separationY;
+        }
+        vx += ax * stepTime;
+        vy += ay * stepTime;
+        float speed = (float) Math.sqrt(vx * vx + vy * vy);
+        float clamped = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        if (speed > 0 && clamped != speed) {
+            vx *= clamped / speed;
+            vy *= clamped / speed;
+        }
+        nextVxs[i] = vx;
+        nextVys[i] = vy;
+    }
+
+    /**
+     * @param y Y coordinate of a bird
+     * @return vertical acceleration back into the flock's altitude band
+     */
+    private float altitudeCorrection(float y) {
+        float offset = y - altitude;
+        if (Math.abs(offset) <= ALTITUDE_BAND) {
+            return 0;
+        }
+        return -ALTITUDE_WEIGHT * (offset - Math.copySign(ALTITUDE_BAND, offset));
+    }
+
+    /**
+     * @param x X coordinate
+     * @return column of the cell, before wrapping
+     */
+    private static int cellX(float x) {
+        return (int) Math.floor(x / NEIGHBOR_RADIUS);
+    }
+
+    /**
+     * @param y Y coordinate
+     * @return row of the cell, before wrapping
+     */
+    private static int cellY(float y) {
+        return (int) Math.floor(y / NEIGHBOR_RADIUS);
+    }
+
+    /**
+     * @param cellX column of the cell
+     * @param cellY row of the cell
+     * @return index of the cell in the hash
+     */
+    private int cellOf(int cellX, int cellY) {
+        return (cellX & (hashColumns - 1)) + hashColumns * (cellY & (HASH_ROWS - 1));
+    }
+
+    /**
+     * fitting the object around the birds, so it's drawn whenever one of them is in view
+     */
+    private void updateBounds() {
+        minX = Float.POSITIVE_INFINITY;
+        minY = Float.POSITIVE_INFINITY;
+        maxX = Float.NEGATIVE_INFINITY;
+        maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (count == 0) {
+            return;
+        }
+        setTopLeftCorner(Vector2.of(minX, minY));
+        setDimensions(Vector2.of(maxX - minX, maxY - minY).add(BIRD_DIMENSIONS));
+    }
+
+    /**
+     * drawing every bird at its frame of the shared animation, facing the way it flies
+     *
+     * @param g                     graphics of the frame
+     * @param topLeftCorner         top left corner of the flock on the screen
+     * @param dimensions            dimensions of the flock
+     * @param renderableAngle       ignored, the birds don't rotate
+     * @param isFlippedHorizontally ignored, every bird faces its own way
+     * @param isFlippedVertically   ignored
+     * @param opaqueness            ignored, the birds are opaque
+     */
+    private void drawBirds(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double renderableAngle,
+                           boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        var clip = g.getClipBounds();
+        int width = Math.round(BIRD_DIMENSIONS.x()), height = Math.round(BIRD_DIMENSIONS.y());
+        float baseFrame = time / TIME_BETWEEN_BIRD_IMAGES;
+        for (int i = 0; i < count; i++) {
+            int x = Math.round(topLeftCorner.x() + interpolator.interpolate(previousXs[i], xs[i]) - minX);
+            int y = Math.round(topLeftCorner.y() + interpolator.interpolate(previousYs[i], ys[i]) - minY);
+            if (clip != null && (x + width < clip.x || x > clip.x + clip.width)) {
+                continue;
+            }
+            var frame = frames[(int) (baseFrame + frameOffsets[i]) % frames.length];
+            if (vxs[i] < 0) {
+                g.drawImage(frame, x + width, y, -width, height, null);
+            } else {
+                g.drawImage(frame, x, y, width, height, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package pepse.world;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Direct-mapped cache of ground heights by column index, for a single seed.
+ * Each slot packs the column and its height into one long, so lookups never allocate and are
+ * safe while worlds are generated in the background. As long as the capacity covers the streamed
+ * columns, columns leaving the window are the ones overwritten by columns entering it.
+ */
+public class HeightCache {
+    public static final int MISSING = Integer.MIN_VALUE;
+    private static final long EMPTY = pack(Integer.MIN_VALUE, 0);
+
+    private final int seed;
+    private final int mask;
+    private final AtomicLongArray slots;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    /**
+     * @param seed     the seed the cached heights belong to
+     * @param capacity minimal amount of columns to hold
+     */
+    public HeightCache(int seed, int capacity) {
+        this.seed = seed;
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * @return the seed the cached heights belong to
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param column column index
+     * @return the cached height, or MISSING
+     */
+    public int get(int column) {
+        long entry = slots.get(column & mask);
+        if ((int) (entry >>> 32) == column && entry != EMPTY) {
+            hits.increment();
+            return (int) entry;
+        }
+        misses.increment();
+        return MISSING;
+    }
+
+    /**
+     * @param column column index
+     * @param height ground height of the column
+     */
+    public void put(int column, int height) {
+        slots.set(column & mask, pack(column, height));
+    }
+
+    /**
+     * @return amount of columns the cache holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return part of the lookups that were answered from the cache
+     */
+    public double hitRate() {
+        long hitCount = hits.sum(), total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return part of the lookups that had to compute the height
+     */
+    public double missRate() {
+        long missCount = misses.sum(), total = hits.sum() + missCount;
+        return total == 0 ? 0 : (double) missCount / total;
+    }
+
+    /**
+     * @return hit and miss rates of the cache
+     */
+    @Override
+    public String toString() {
+        return String.format("height cache: %.1f%% hits, %.1f%% misses of %d lookups",
+                hitRate() * 100, missRate() * 100, hits.sum() + misses.sum());
+    }
+
+    /**
+     * @param column column index
+     * @param height ground height
+     * @return the column in the high bits and the height in the low bits
+     */
+    private static long pack(int column, int height) {
+        return ((long) column << 32) | (height & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,96 @@
+package pepse.world;
+
+import pepse.GraphicManager;
+
+/**
+ * Stateless ground height engine. The height of a column is smooth value noise: a SplitMix64 hash of the
+ * seed and a lattice point gives a random value every CELL_WIDTH columns, and the columns between two
+ * lattice points are interpolated with a smoothstep curve. The same seed and column always give the same
+ * height, on any thread and in any order.
+ */
+public final class HeightField {
+    private static final int CELL_WIDTH = 8;
+    private static final int AMPLITUDE = 3;
+    private static final int GROUND_HEIGHT_AT_X0 = (int) (GraphicManager.WINDOW_DIMENSIONS.y() *
+            GraphicManager.WINDOW_HEIGHT_TO_TERRAIN_FACTOR) / Block.SIZE * Block.SIZE;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double UNIT = 0x1.0p-53;
+    private static final float[] WEIGHTS = new float[CELL_WIDTH];
+
+    static {
+        for (int i = 0; i < CELL_WIDTH; i++) {
+            float t = (float) i / CELL_WIDTH;
+            WEIGHTS[i] = t * t * (3 - 2 * t);
+        }
+    }
+
+    private HeightField() {
+    }
+
+    /**
+     * @param column column index, X coordinate divided by the block size
+     * @param seed   the seed
+     * @return the ground height of the column
+     */
+    public static int heightAt(int column, int seed) {
+        int cell = Math.floorDiv(column, CELL_WIDTH);
+        float left = latticeValue(cell, seed);
+        float right = latticeValue(cell + 1, seed);
+        return toHeight(left + (right - left) * WEIGHTS[column - cell * CELL_WIDTH]);
+    }
+
+    /**
+     * filling the ground heights of a run of consecutive columns,
+     * hashing every lattice point once instead of twice per column
+     *
+     * @param firstColumn index of the first column
+     * @param seed        the seed
+     * @param heights     array to fill, heights[i] is the height of column firstColumn + i
+     */
+    public static void fill(int firstColumn, int seed, int[] heights) {
+        int cell = Math.floorDiv(firstColumn, CELL_WIDTH);
+        int offset = firstColumn - cell * CELL_WIDTH;
+        float right = latticeValue(cell, seed);
+        for (int i = 0; i < heights.length; cell++) {
+            float left = right;
+            right = latticeValue(cell + 1, seed);
+            float delta = right - left;
+            int end = Math.min(heights.length, i + CELL_WIDTH - offset);
+            for (int j = offset - i; i < end; i++) {
+                heights[i] = toHeight(left + delta * WEIGHTS[i + j]);
+            }
+            offset = 0;
+        }
+    }
+
+    /**
+     * @param value noise value between -1 and 1
+     * @return ground height, aligned to the blocks
+     */
+    private static int toHeight(float value) {
+        return GROUND_HEIGHT_AT_X0 + Math.round(value * AMPLITUDE) * Block.SIZE;
+    }
+
+    /**
+     * @param cell index of the lattice point
+     * @param seed the seed
+     * @return random value between -1 and 1
+     */
+    private static float latticeValue(int cell, int seed) {
+        long hash = mix(((long) seed << 32) ^ (cell & 0xFFFFFFFFL));
+        return (float) ((hash >>> 11) * UNIT) * 2 - 1;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     *
+     * @param z value to hash
+     * @return well mixed hash of the value
+     */
+    static long mix(long z) {
+        z += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,150 @@
+package pepse.world;
+
+import danogl.GameObject;
+import pepse.jfr.AvatarCorrectedEvent;
+
+/**
+ * Keeps a moving object on top of the terrain without colliding it with the terrain's blocks.
+ * The terrain is a height field in Block.SIZE columns, so the object's move in the last frame is swept
+ * against the heights of the columns it crossed: a column higher than the object's feet is a wall,
+ * and the object never ends a frame below the ground, no matter how fast it moved.
+ */
+public class HeightFieldCollider {
+    private static final float TOLERANCE = 0.5f;
+
+    private final int seed;
+    private boolean isGrounded = false;
+    private boolean didLand = false;
+
+    /**
+     * @param seed the seed of the terrain
+     */
+    public HeightFieldCollider(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * moving the body out of the terrain, called once per frame after the body moved
+     *
+     * @param body           the moving object
+     * @param previousLeft   X coordinate of the body's left side before it moved
+     * @param previousBottom Y coordinate of the body's bottom before it moved
+     */
+    public void resolve(GameObject body, float previousLeft, float previousBottom) {
+        var dimensions = body.getDimensions();
+        float left = body.getTopLeftCorner().x();
+        float bottom = body.getTopLeftCorner().y() + dimensions.y();
+        float feet = Math.min(previousBottom, bottom);
+        if (left > previousLeft) {
+            left = sweepRight(previousLeft + dimensions.x(), left + dimensions.x(), feet) - dimensions.x();
+        } else if (left < previousLeft) {
+            left = sweepLeft(previousLeft, left, feet);
+        }
+        if (left != body.getTopLeftCorner().x()) {
+            body.transform().setTopLeftCornerX(left);
+            body.transform().setVelocityX(0);
+        }
+        int ground = groundUnder(left, left + dimensions.x());
+        boolean wasGrounded = isGrounded;
+        isGrounded = bottom >= ground - TOLERANCE && body.getVelocity().y() >= 0;
+        if (bottom > ground) {
+            body.transform().setTopLeftCornerY(ground - dimensions.y());
+            body.transform().setVelocityY(0);
+            if (previousBottom > ground + TOLERANCE) {
+                reportCorrection(left + dimensions.x() / 2, previousBottom, ground);
+            }
+        }
+        didLand = isGrounded && !wasGrounded;
+    }
+
+    /**
+     * @return true if the body stood on the ground in the last frame
+     */
+    public boolean isGrounded() {
+        return isGrounded;
+    }
+
+    /**
+     * @return true if the body touched the ground in the last frame after being in the air
+     */
+    public boolean didLand() {
+        return didLand;
+    }
+
+    /**
+     * @param previousRight X coordinate of the right side before the move
+     * @param right         X coordinate of the right side after the move
+     * @param feet          highest Y coordinate of the bottom during the move
+     * @return X coordinate of the right side, stopped at the first wall
+     */
+    private float sweepRight(float previousRight, float right, float feet) {
+        int last = columnOf((float) Math.ceil(right) - 1);
+        for (int column = columnOf((float) Math.ceil(previousRight) - 1) + 1; column <= last; column++) {
+            if (heightOf(column) < feet - TOLERANCE) {
+                return column * Block.SIZE;
+            }
+        }
+        return right;
+    }
+
+    /**
+     * @param previousLeft X coordinate of the left side before the move
+     * @param left         X coordinate of the left side after the move
+     * @param feet         highest Y coordinate of the bottom during the move
+     * @return X coordinate of the left side, stopped at the first wall
+     */
+    private float sweepLeft(float previousLeft, float left, float feet) {
+        int last = columnOf(left);
+        for (int column = columnOf(previousLeft) - 1; column >= last; column--) {
+            if (heightOf(column) < feet - TOLERANCE) {
+                return (column + 1) * Block.SIZE;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * @param left  X coordinate of the left side
+     * @param right X coordinate of the right side
+     * @return the highest ground between the sides
+     */
+    private int groundUnder(float left, float right) {
+        int ground = Integer.MAX_VALUE;
+        int last = columnOf((float) Math.ceil(right) - 1);
+        for (int column = columnOf(left); column <= last; column++) {
+            ground = Math.min(ground, heightOf(column));
+        }
+        return ground;
+    }
+
+    /**
+     * @param x X coordinate
+     * @return index of the column of X
+     */
+    private static int columnOf(float x) {
+        return Math.floorDiv((int) Math.floor(x), Block.SIZE);
+    }
+
+    /**
+     * @param column index of the column
+     * @return ground height of the column
+     */
+    private int heightOf(int column) {
+        return Terrain.myGroundHeightAt(column * Block.SIZE, seed);
+    }
+
+    /**
+     * @param x       X coordinate of the body's center
+     * @param bottomY Y coordinate of the body's bottom before it was moved up
+     * @param groundY Y coordinate of the ground it was moved to
+     */
+    private static void reportCorrection(float x, float bottomY, float groundY) {
+        var event = new AvatarCorrectedEvent();
+        if (event.shouldCommit()) {
+            event.x = x;
+            event.bottomY = bottomY;
+            event.terrainY = groundY;
+            event.commit();
+        }
+    }
+}
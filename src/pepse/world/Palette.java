@@ -0,0 +1,62 @@
+package pepse.world;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import pepse.util.ColorSupplier;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * A fixed set of color variants around a base color, each with one shared renderable.
+ * The variant of a block is a hash of its location and the seed, so picking a color never allocates
+ * or touches a shared random, and a regenerated block gets the same color again.
+ */
+public class Palette {
+    public static final int VARIANTS = 16;
+
+    private final Color[] colors = new Color[VARIANTS];
+    private final Renderable[] renderables = new Renderable[VARIANTS];
+
+    /**
+     * @param baseColor the color the variants approximate
+     */
+    public Palette(Color baseColor) {
+        var random = new Random(baseColor.getRGB());
+        for (int i = 0; i < VARIANTS; i++) {
+            colors[i] = ColorSupplier.approximateColor(baseColor, random);
+            renderables[i] = new RectangleRenderable(colors[i]);
+        }
+    }
+
+    /**
+     * @param x    X coordinate
+     * @param y    Y coordinate
+     * @param seed the seed
+     * @return the variant of the location
+     */
+    public static int variantAt(int x, int y, int seed) {
+        long hash = HeightField.mix((((long) x << 32) | (y & 0xFFFFFFFFL)) ^ HeightField.mix(seed));
+        return (int) (((hash >>> 32) * VARIANTS) >>> 32);
+    }
+
+    /**
+     * @param x    X coordinate
+     * @param y    Y coordinate
+     * @param seed the seed
+     * @return the color of the location
+     */
+    public Color colorAt(int x, int y, int seed) {
+        return colors[variantAt(x, y, seed)];
+    }
+
+    /**
+     * @param x    X coordinate
+     * @param y    Y coordinate
+     * @param seed the seed
+     * @return the shared renderable of the location's color
+     */
+    public Renderable renderableAt(int x, int y, int seed) {
+        return renderables[variantAt(x, y, seed)];
+    }
+}
@@ -3,38 +3,31 @@ package pepse.world;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.components.ScheduledTask;
 import danogl.gui.ImageReader;
-import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
+import pepse.util.AssetCache;
+import pepse.util.RenderInterpolator;
 
 import java.awt.*;
 
 import static pepse.GraphicManager.*;
 
 public class Sky {
+    public static final int CLOUD_COUNT = Integer.getInteger("pepse.clouds", 8);
+    public static final float CLOUD_DEPTH = Float.parseFloat(System.getProperty("pepse.clouds.depth", "2"));
     private static final Color BASIC_SKY_COLOR = Color.decode("#80C6E5");
-    private static final Vector2 CLOUD_DIMENSIONS = Vector2.of(150, 150);
-    private static final Vector2
-            CLOUD_0_POS = Vector2.of(-150, WINDOW_HEIGHT * 0.01f),
-            CLOUD_1_POS = Vector2.of(-400, WINDOW_HEIGHT * 0.1f),
-            CLOUD_2_POS = Vector2.of(-800, WINDOW_HEIGHT * 0.06f);
-    private static final Vector2
-            CLOUD_0_VELOCITY = Vector2.of(70, 0),
-            CLOUD_1_VELOCITY = Vector2.of(75, 0),
-            CLOUD_2_VELOCITY = Vector2.of(80, 0);
-    private static final String
-            CLOUD_0_IMG = "assets/cloud0.png",
-            CLOUD_1_IMG = "assets/cloud1.png",
-            CLOUD_2_IMG = "assets/cloud2.png";
-    private static ImageRenderable image0, image2;
-    private static ImageReader imageReader;
-    private static GameObjectCollection gameObjects;
-    private static GameObject sky;
-    private static GameObject cloud01, cloud11, cloud21, cloud02, cloud12;
+    private static final String[] CLOUD_IMAGES = {"assets/cloud0.png", "assets/cloud1.png", "assets/cloud2.png"};
 
+    /**
+     * start decoding the clouds' images in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(true, CLOUD_IMAGES);
+    }
 
     /**
      * @param gameObjects      collection of game objects
@@ -44,83 +37,31 @@ public class Sky {
      */
     public static GameObject create(GameObjectCollection gameObjects, Vector2 windowDimensions,
                                       int skyLayer) {
-        return myCreate(gameObjects, null);
-    }
-
-    /**
-     * @param gameObjects collection of game objects
-     * @param imageReader image reader
-     * @return sky object
-     */
-    public static GameObject myCreate(GameObjectCollection gameObjects, ImageReader imageReader) {
-        Sky.imageReader = imageReader;
-        Sky.gameObjects = gameObjects;
-        sky = new GameObject(Vector2.ZERO, GraphicManager.WINDOW_DIMENSIONS,
-                new RectangleRenderable(BASIC_SKY_COLOR));
+        var sky = new GameObject(Vector2.ZERO, windowDimensions, new RectangleRenderable(BASIC_SKY_COLOR));
         sky.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(sky, SKY_LAYER);
+        gameObjects.addGameObject(sky, skyLayer);
         sky.setTag("sky");
-        if (imageReader != null) {
-            initClouds();
-        }
         return sky;
     }
 
     /**
-     * adding group of clouds to the game
-     */
-    private static void initClouds() {
-        image0 = imageReader.readImage(CLOUD_0_IMG, true);
-        ImageRenderable image1 = imageReader.readImage(CLOUD_1_IMG, true);
-        image2 = imageReader.readImage(CLOUD_2_IMG, true);
-        cloud01 = new GameObject(CLOUD_0_POS, CLOUD_DIMENSIONS, image0);
-        cloud11 = new GameObject(CLOUD_1_POS, CLOUD_DIMENSIONS, image1);
-        cloud21 = new GameObject(CLOUD_2_POS, CLOUD_DIMENSIONS, image2);
-        cloud01.setVelocity(CLOUD_0_VELOCITY);
-        cloud11.setVelocity(CLOUD_1_VELOCITY);
-        cloud21.setVelocity(CLOUD_2_VELOCITY);
-        cloud01.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        cloud11.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        cloud21.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(cloud01, CLOUDS_LAYER);
-        gameObjects.addGameObject(cloud11, CLOUDS_LAYER);
-        gameObjects.addGameObject(cloud21, CLOUDS_LAYER);
-        new ScheduledTask(sky, 30, true, Sky::respawnFirstClouds);
-
-        new ScheduledTask(sky, 16, false, Sky::initSecondClouds);
-    }
-
-    /**
-     * adding second group of clouds to the game
-     */
-    private static void initSecondClouds() {
-        cloud02 = new GameObject(CLOUD_0_POS, CLOUD_DIMENSIONS, image0);
-        cloud12 = new GameObject(CLOUD_1_POS, CLOUD_DIMENSIONS, image2);
-        cloud02.setVelocity(CLOUD_2_VELOCITY);
-        cloud12.setVelocity(CLOUD_1_VELOCITY);
-        cloud02.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        cloud12.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(cloud02, CLOUDS_LAYER);
-        gameObjects.addGameObject(cloud12, CLOUDS_LAYER);
-        new ScheduledTask(sky, 30, true, Sky::respawnSecondClouds);
-    }
-
-    /**
-     * respawn the first group of clouds
-     */
-    private static void respawnFirstClouds() {
-        cloud01.setTopLeftCorner(CLOUD_0_POS);
-        cloud11.setTopLeftCorner(CLOUD_1_POS);
-        cloud21.setTopLeftCorner(CLOUD_2_POS);
-    }
-
-    /**
-     * respawn the second group of clouds
+     * @param gameObjects  collection of game objects
+     * @param imageReader  image reader
+     * @param seed         the seed of the clouds
+     * @param viewBounds   the camera's view, which the clouds wrap around
+     * @param interpolator draws the clouds between the last two steps
+     * @return sky object
      */
-    private static void respawnSecondClouds() {
-        cloud02.setTopLeftCorner(CLOUD_0_POS);
-        cloud12.setTopLeftCorner(CLOUD_1_POS);
+    public static GameObject myCreate(GameObjectCollection gameObjects, ImageReader imageReader, int seed,
+                                      ViewBounds viewBounds, RenderInterpolator interpolator) {
+        var sky = create(gameObjects, GraphicManager.WINDOW_DIMENSIONS, SKY_LAYER);
+        var images = new Image[CLOUD_IMAGES.length];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = imageReader.readImage(CLOUD_IMAGES[i], true).getImage();
+        }
+        var clouds = new CloudField(GraphicManager.WINDOW_DIMENSIONS, images, CLOUD_COUNT, CLOUD_DEPTH, seed,
+                viewBounds, interpolator);
+        gameObjects.addGameObject(clouds, CLOUDS_LAYER);
+        return sky;
     }
 }
-
-
@@ -2,47 +2,56 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.Objects;
 import java.util.Random;
 
 public class Terrain {
-    private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+    private static final Palette PALETTE = new Palette(new Color(212, 123, 74));
     private static final int TERRAIN_DEPTH = 20;
     private static final int MAX_AMPLITUDE = 4;
-    private static float groundHeightAtX0;
+    // every column the world streamer keeps, so the kept columns never evict each other
+    private static final int HEIGHT_CACHE_CAPACITY = WorldStreamer.keptColumns(GraphicManager.CHUNK_COLUMNS,
+            GraphicManager.CHUNKS_PER_SIDE, GraphicManager.WINDOW_WIDTH);
+    private static volatile HeightCache heightCache;
 
     private final GameObjectCollection gameObjects;
+    private final AttachQueue attachQueue;
     private final int groundLayer;
     private final int seed;
 
     int counter = 0;
     ArrayList<ArrayList<GameObject>> terrain = new ArrayList<>();
+    private GameObject deepTerrain;
 
     /**
      * @param gameObjects      collection of game objects
      * @param groundLayer      the ground layer
      * @param windowDimensions window dimensions
      * @param seed             the seed
+     * @param attachQueue      queue of objects waiting to be added to the game
      */
-    public Terrain(GameObjectCollection gameObjects, int groundLayer, Vector2 windowDimensions, int seed) {
+    public Terrain(GameObjectCollection gameObjects, int groundLayer, Vector2 windowDimensions, int seed,
+                   AttachQueue attachQueue) {
         this.gameObjects = gameObjects;
+        this.attachQueue = attachQueue;
         this.groundLayer = groundLayer;
         this.seed = seed;
-        groundHeightAtX0 =
-                GraphicManager.WINDOW_DIMENSIONS.y() * GraphicManager.WINDOW_HEIGHT_TO_TERRAIN_FACTOR;
     }
 
     /**
+     * the height of a random seed's ground, computed without the height cache, which holds the game's seed
+     *
      * @param x X coordinate
      * @return the ground height at X
      */
     public float groundHeightAt(float x) {
-        return myGroundHeightAt(x, new Random().nextInt());
+        return HeightField.heightAt(columnOf(x), new Random().nextInt());
     }
 
     /**
@@ -51,9 +60,21 @@ public class Terrain {
      * @return the ground height at X
      */
     public static int myGroundHeightAt(float x, int seed) {
-        float blockAmount = noise(x, seed) * Block.SIZE;
-        float y = blockAmount + groundHeightAtX0;
-        return ((int) (y / Block.SIZE)) * Block.SIZE;
+        int column = columnOf(x);
+        var cache = heightCacheFor(seed);
+        int height = cache.get(column);
+        if (height == HeightCache.MISSING) {
+            height = HeightField.heightAt(column, seed);
+            cache.put(column, height);
+        }
+        return height;
+    }
+
+    /**
+     * @return the cache of column heights of the current seed, or null if no height was asked yet
+     */
+    public static HeightCache getHeightCache() {
+        return heightCache;
     }
 
     /**
@@ -63,13 +84,35 @@ public class Terrain {
      * @param maxX max X coordinate
      */
     public void createInRange(int minX, int maxX) {
-        for (int x = minX; x < maxX; x += Block.SIZE) {
-            int y = myGroundHeightAt(x, seed);
-            var col = GraphicManager.createBlockCol(x, y, TERRAIN_DEPTH, BASE_GROUND_COLOR);
+        int columns = Math.max(0, (maxX - minX + Block.SIZE - 1) / Block.SIZE);
+        createFrom(ChunkData.generate(Math.floorDiv(minX, Block.SIZE), columns, seed));
+    }
+
+    /**
+     * creating the blocks of generated columns, only the top MAX_AMPLITUDE blocks of each column are game
+     * objects, the deeper blocks are never touched so they are drawn into a single image
+     *
+     * @param data the generated columns
+     */
+    public void createFrom(ChunkData data) {
+        var cache = heightCacheFor(seed);
+        for (int i = 0; i < data.columns(); i++) {
+            int column = data.firstColumn() + i;
+            int y = data.height(i);
+            cache.put(column, y);
+            var col = GraphicManager.createBlockCol(column * Block.SIZE, y, MAX_AMPLITUDE, PALETTE, seed);
             terrain.add(col);
             addColToGame(col);
             counter++;
         }
+        bakeDeepTerrain(data);
+    }
+
+    /**
+     * @return amount of blocks that are game objects
+     */
+    public int blockCount() {
+        return counter * MAX_AMPLITUDE;
     }
 
     /**
@@ -77,33 +120,77 @@ public class Terrain {
      */
     public void deleteTerrain() {
         for (var col : terrain) {
-            for (int i = 0; i < col.size(); i++) {
-                var layer = i < MAX_AMPLITUDE ? groundLayer : groundLayer + 1;
-                gameObjects.removeGameObject(col.get(i), layer);
+            for (var block : col) {
+                gameObjects.removeGameObject(block, groundLayer);
+                Block.POOL.release((Block) block);
             }
         }
+        if (deepTerrain != null) {
+            gameObjects.removeGameObject(deepTerrain, groundLayer + 1);
+        }
     }
 
     /**
-     * adding a column to the game
+     * queueing a column to be added to the game
      *
      * @param col a column of blocks
      */
     private void addColToGame(ArrayList<GameObject> col) {
-        for (int i = 0; i < col.size(); i++) {
-            var layer = i < MAX_AMPLITUDE ? groundLayer : groundLayer + 1;
-            gameObjects.addGameObject(col.get(i), layer);
+        for (var block : col) {
+            attachQueue.add(block, groundLayer);
         }
     }
 
     /**
-     * @param x    X coordinate
+     * drawing the blocks below the top MAX_AMPLITUDE blocks of each column into one image
+     *
+     * @param data the generated columns
+     */
+    private void bakeDeepTerrain(ChunkData data) {
+        if (data.columns() == 0) {
+            return;
+        }
+        int top = Integer.MAX_VALUE, bottom = Integer.MIN_VALUE;
+        for (int i = 0; i < data.columns(); i++) {
+            top = Math.min(top, data.height(i) + MAX_AMPLITUDE * Block.SIZE);
+            bottom = Math.max(bottom, data.height(i) + TERRAIN_DEPTH * Block.SIZE);
+        }
+        var image = new BufferedImage(data.columns() * Block.SIZE, bottom - top, BufferedImage.TYPE_INT_ARGB);
+        var graphics = image.createGraphics();
+        for (int col = 0; col < data.columns(); col++) {
+            int x = (data.firstColumn() + col) * Block.SIZE;
+            for (int row = MAX_AMPLITUDE; row < TERRAIN_DEPTH; row++) {
+                int y = data.height(col) + row * Block.SIZE;
+                graphics.setColor(PALETTE.colorAt(x, y, seed));
+                graphics.fillRect(col * Block.SIZE, y - top, Block.SIZE, Block.SIZE);
+            }
+        }
+        graphics.dispose();
+        var dimensions = Vector2.of(image.getWidth(), image.getHeight());
+        var topLeftCorner = Vector2.of(data.firstColumn() * Block.SIZE, top);
+        deepTerrain = new GameObject(topLeftCorner, dimensions, new ImageRenderable(image));
+        deepTerrain.setTag("deep terrain");
+        attachQueue.add(deepTerrain, groundLayer + 1);
+    }
+
+    /**
+     * @param x X coordinate
+     * @return index of the column X is in
+     */
+    private static int columnOf(float x) {
+        return Math.floorDiv((int) Math.floor(x), Block.SIZE);
+    }
+
+    /**
      * @param seed the seed
-     * @return noised height for the column
+     * @return the cache of column heights of the seed
      */
-    private static float noise(float x, int seed) {
-        Random rand = new Random(Objects.hash(x, seed));
-        var amplitude = rand.nextInt(MAX_AMPLITUDE);
-        return (float) (Math.sin(80 * x) + Math.sin(Math.PI * x)) * amplitude;
+    private static HeightCache heightCacheFor(int seed) {
+        var cache = heightCache;
+        if (cache == null || cache.getSeed() != seed) {
+            cache = new HeightCache(seed, HEIGHT_CACHE_CAPACITY);
+            heightCache = cache;
+        }
+        return cache;
     }
 }
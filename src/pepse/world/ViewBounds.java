@@ -0,0 +1,43 @@
+package pepse.world;
+
+import danogl.gui.rendering.Camera;
+
+/**
+ * The horizontal range around the camera's view in which objects are awake, shared by all the objects
+ * that sleep outside of it. A margin around the view keeps objects awake a little before they can be seen,
+ * and until the range is first updated everything is in it.
+ */
+public class ViewBounds {
+    private static final float MARGIN = 4 * Block.SIZE;
+
+    private float left = Float.NEGATIVE_INFINITY;
+    private float right = Float.POSITIVE_INFINITY;
+    private float viewLeft = 0;
+
+    /**
+     * moving the range to the camera's view, called once per frame before the objects are updated
+     *
+     * @param camera the camera of the game
+     */
+    public void update(Camera camera) {
+        viewLeft = camera.getTopLeftCorner().x();
+        left = viewLeft - MARGIN;
+        right = viewLeft + camera.getDimensions().x() + MARGIN;
+    }
+
+    /**
+     * @return X coordinate of the left side of the camera's view, 0 until the range is first updated
+     */
+    public float viewLeft() {
+        return viewLeft;
+    }
+
+    /**
+     * @param x     X coordinate of the object's left side
+     * @param width width of the object
+     * @return true if any part of the object is in the range
+     */
+    public boolean contains(float x, float width) {
+        return x + width >= left && x <= right;
+    }
+}
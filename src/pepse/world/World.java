@@ -1,51 +1,121 @@
 package pepse.world;
 
 import danogl.collisions.GameObjectCollection;
+import pepse.jfr.WorldCreatedEvent;
+import pepse.jfr.WorldRemovedEvent;
+import pepse.util.RenderInterpolator;
 import pepse.world.trees.Tree;
+import pepse.world.trees.Wind;
 import static pepse.GraphicManager.*;
 
 public class World {
     public final int leftBorder;
     public final int rightBorder;
+    private final GameObjectCollection gameObjects;
+    private final AttachQueue attachQueue = new AttachQueue();
     private final Terrain terrain;
     private final Tree tree;
 
 
     /**
-     * @param leftBorder  left X border
-     * @param rightBorder right X border
-     * @param gameObjects collection of game objects
-     * @param seed        the seed
+     * creating all the world's objects without adding them to the game,
+     * so it's safe to call from a background thread
+     *
+     * @param leftBorder   left X border
+     * @param rightBorder  right X border
+     * @param gameObjects  collection of game objects
+     * @param seed         the seed
+     * @param wind         the wind swaying the leaves
+     * @param viewBounds   the range in which objects are awake
+     * @param interpolator draws the falling leaves between the last two steps
      */
-    public World(int leftBorder, int rightBorder, GameObjectCollection gameObjects, int seed) {
+    public World(int leftBorder, int rightBorder, GameObjectCollection gameObjects, int seed, Wind wind,
+                 ViewBounds viewBounds, RenderInterpolator interpolator) {
+        this(leftBorder, rightBorder, ChunkData.generate(Math.floorDiv(leftBorder, Block.SIZE),
+                        (rightBorder - leftBorder + Block.SIZE - 1) / Block.SIZE, seed),
+                gameObjects, seed, wind, viewBounds, interpolator);
+    }
+
+    /**
+     * creating all the world's objects from columns that were already generated,
+     * without adding them to the game, so it's safe to call from a background thread
+     *
+     * @param leftBorder   left X border
+     * @param rightBorder  right X border
+     * @param data         the generated columns between the borders
+     * @param gameObjects  collection of game objects
+     * @param seed         the seed
+     * @param wind         the wind swaying the leaves
+     * @param viewBounds   the range in which objects are awake
+     * @param interpolator draws the falling leaves between the last two steps
+     */
+    public World(int leftBorder, int rightBorder, ChunkData data, GameObjectCollection gameObjects, int seed,
+                 Wind wind, ViewBounds viewBounds, RenderInterpolator interpolator) {
+        var event = new WorldCreatedEvent();
+        event.begin();
         this.leftBorder = leftBorder;
         this.rightBorder = rightBorder;
-        terrain = new Terrain(gameObjects, TERRAIN_LAYER, WINDOW_DIMENSIONS, seed);
-        tree = new Tree(gameObjects, TREE_LAYER, seed);
-        initWorld();
+        this.gameObjects = gameObjects;
+        terrain = new Terrain(gameObjects, TERRAIN_LAYER, WINDOW_DIMENSIONS, seed, attachQueue);
+        tree = new Tree(gameObjects, TREE_LAYER, seed, attachQueue, wind, viewBounds, interpolator);
+        terrain.createFrom(data);
+        tree.createFrom(data);
+        event.end();
+        if (event.shouldCommit()) {
+            event.leftBorder = leftBorder;
+            event.rightBorder = rightBorder;
+            event.blockCount = blockCount();
+            event.treeCount = tree.treeCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * adding the world's objects to the game until the deadline passes
+     *
+     * @param deadlineNanos System.nanoTime() value to stop at
+     * @return true if the whole world is in the game
+     */
+    public boolean attach(long deadlineNanos) {
+        return attachQueue.flushInto(gameObjects, deadlineNanos);
+    }
+
+    /**
+     * adding all the world's objects to the game
+     */
+    public void attachAll() {
+        attachQueue.flushInto(gameObjects);
     }
 
     /**
-     * @param x X coordinate
-     * @return true if the avatar is in this world
+     * @return amount of objects this world added to the game
      */
-    public boolean isAvatarAtThisWorld(float x) {
-        return x >= leftBorder && x <= rightBorder;
+    public int getAddedObjectCount() {
+        return attachQueue.addedCount();
     }
 
     /**
      * remove all this world's objects from the game
      */
     public void removeWorld() {
+        var event = new WorldRemovedEvent();
+        event.begin();
+        attachQueue.clear();
         terrain.deleteTerrain();
         tree.deleteTree();
+        event.end();
+        if (event.shouldCommit()) {
+            event.leftBorder = leftBorder;
+            event.rightBorder = rightBorder;
+            event.blockCount = blockCount();
+            event.commit();
+        }
     }
 
     /**
-     * creating all the world's object
+     * @return amount of blocks and leaves in the world
      */
-    private void initWorld() {
-        terrain.createInRange(leftBorder, rightBorder);
-        tree.createInRange(leftBorder, rightBorder);
+    public int blockCount() {
+        return terrain.blockCount() + tree.blockCount();
     }
 }
@@ -0,0 +1,119 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import pepse.util.RenderInterpolator;
+import pepse.world.trees.Wind;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class WorldGenerator {
+    private static final String THREAD_NAME = "world-generator";
+
+    private final ExecutorService executor;
+    private final GameObjectCollection gameObjects;
+    private final int seed;
+    private final Wind wind;
+    private final ViewBounds viewBounds;
+    private final RenderInterpolator interpolator;
+    private final ChunkCache chunkCache;
+
+    /**
+     * @param gameObjects  collection of game objects
+     * @param seed         the seed
+     * @param wind         the wind swaying the leaves
+     * @param viewBounds   the range in which objects are awake
+     * @param interpolator draws the falling leaves between the last two steps
+     * @param chunkCache   cache of generated chunks, or null to generate every world
+     */
+    public WorldGenerator(GameObjectCollection gameObjects, int seed, Wind wind, ViewBounds viewBounds,
+                          RenderInterpolator interpolator, ChunkCache chunkCache) {
+        this.gameObjects = gameObjects;
+        this.seed = seed;
+        this.wind = wind;
+        this.viewBounds = viewBounds;
+        this.interpolator = interpolator;
+        this.chunkCache = chunkCache;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * start building a world in the background
+     *
+     * @param leftBorder  left X coordinate
+     * @param rightBorder right X coordinate
+     * @return the world that will be built
+     */
+    public Future<World> generate(int leftBorder, int rightBorder) {
+        return executor.submit(() -> build(leftBorder, rightBorder));
+    }
+
+    /**
+     * building a world on the calling thread
+     *
+     * @param leftBorder  left X coordinate
+     * @param rightBorder right X coordinate
+     * @return the world, not yet added to the game
+     */
+    public World build(int leftBorder, int rightBorder) {
+        var data = chunkData(leftBorder, rightBorder);
+        return new World(leftBorder, rightBorder, data, gameObjects, seed, wind, viewBounds,
+                interpolator);
+    }
+
+    /**
+     * @return cache of generated chunks, or null if there's none
+     */
+    public ChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * reading the columns of a world from the cache when it's a cached chunk,
+     * otherwise generating them, and caching them if it's a chunk
+     *
+     * @param leftBorder  left X coordinate
+     * @param rightBorder right X coordinate
+     * @return the generated columns between the borders
+     */
+    private ChunkData chunkData(int leftBorder, int rightBorder) {
+        int firstColumn = Math.floorDiv(leftBorder, Block.SIZE);
+        int columns = (rightBorder - leftBorder + Block.SIZE - 1) / Block.SIZE;
+        boolean isChunk = chunkCache != null && columns == chunkCache.chunkColumns() &&
+                leftBorder == firstColumn * Block.SIZE && Math.floorMod(firstColumn, columns) == 0;
+        if (!isChunk) {
+            return ChunkData.generate(firstColumn, columns, seed);
+        }
+        int chunk = firstColumn / columns;
+        var data = chunkCache.get(chunk);
+        if (data == null) {
+            data = ChunkData.generate(firstColumn, columns, seed);
+            chunkCache.put(chunk, data);
+        }
+        return data;
+    }
+
+    /**
+     * waiting for a world that was generated in the background
+     *
+     * @param world the world that is being built
+     * @return the built world, not yet added to the game
+     */
+    public static World await(Future<World> world) {
+        try {
+            return world.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while generating a world", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed generating a world", e.getCause());
+        }
+    }
+}
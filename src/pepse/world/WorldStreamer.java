@@ -0,0 +1,283 @@
+package pepse.world;
+
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+
+/**
+ * Streams the world around the avatar in chunks of a few columns, instead of a screen wide world at a time.
+ * The chunks live in a ring buffer indexed by chunk index, a fixed number of chunks is kept on each side of
+ * the avatar, and more chunks are prefetched in the direction the avatar moves the faster it moves.
+ * Chunks are built in the background and added to the game within a per-frame budget, so generation is
+ * spread over the frames instead of spiking when the avatar crosses a border.
+ */
+public class WorldStreamer {
+    private static final float PREFETCH_SECONDS = 1f;
+    private static final int MAX_PREFETCH_CHUNKS = 8;
+
+    private final WorldGenerator worldGenerator;
+    private final int chunkWidth;
+    private final int chunksPerSide;
+    private final int visibleChunksPerSide;
+    private final int keptChunksPerSide;
+    private final World[] chunks;
+    private final ArrayList<Future<World>> pendingChunks;
+    private final int[] chunkIndices;
+    private final ArrayList<World> attachingChunks = new ArrayList<>();
+    private final ArrayList<Future<World>> discardedChunks = new ArrayList<>();
+    private long attachBudgetNanos;
+    private int leftmostChunk, rightmostChunk;
+
+    /**
+     * @param worldGenerator       builds chunks in the background
+     * @param chunkColumns         amount of block columns in a chunk
+     * @param chunksPerSide        amount of chunks kept on each side of the avatar's chunk
+     * @param visibleWidth         width of the view, chunks in it are never left for later
+     * @param attachBudgetMillis   time per frame allowed for adding new chunks' objects to the game
+     */
+    public WorldStreamer(WorldGenerator worldGenerator, int chunkColumns, int chunksPerSide, int visibleWidth,
+                         float attachBudgetMillis) {
+        this.worldGenerator = worldGenerator;
+        chunkWidth = chunkColumns * Block.SIZE;
+        visibleChunksPerSide = visibleChunksPerSide(chunkWidth, visibleWidth);
+        this.chunksPerSide = Math.max(chunksPerSide, visibleChunksPerSide);
+        keptChunksPerSide = this.chunksPerSide + MAX_PREFETCH_CHUNKS;
+        int capacity = 2 * keptChunksPerSide + 1;
+        chunks = new World[capacity];
+        pendingChunks = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            pendingChunks.add(null);
+        }
+        chunkIndices = new int[capacity];
+        setAttachBudget(attachBudgetMillis);
+    }
+
+    /**
+     * @param chunkColumns  amount of block columns in a chunk
+     * @param chunksPerSide amount of chunks kept on each side of the avatar's chunk
+     * @param visibleWidth  width of the view
+     * @return amount of block columns in the chunks a streamer keeps, with the prefetched chunks
+     */
+    public static int keptColumns(int chunkColumns, int chunksPerSide, int visibleWidth) {
+        int chunkWidth = chunkColumns * Block.SIZE;
+        int keptChunksPerSide = Math.max(chunksPerSide, visibleChunksPerSide(chunkWidth, visibleWidth))
+                + MAX_PREFETCH_CHUNKS;
+        return (2 * keptChunksPerSide + 1) * chunkColumns;
+    }
+
+    /**
+     * building the chunks around a location concurrently for the beginning of the game, nearest first.
+     * Only the chunks in view are waited for and added right away, the rest are added by the next updates
+     * once they're built
+     *
+     * @param x X coordinate of the avatar
+     */
+    public void start(float x) {
+        int center = chunkOf(x);
+        leftmostChunk = center;
+        rightmostChunk = center;
+        for (int distance = 0; distance <= chunksPerSide; distance++) {
+            requestChunk(center + distance);
+            if (distance > 0) {
+                requestChunk(center - distance);
+            }
+        }
+        collectBuiltChunks(center);
+        attachChunks(center);
+    }
+
+    /**
+     * removing chunks that are too far, asking for the chunks the avatar is heading to,
+     * and adding built chunks to the game within the budget
+     *
+     * @param x         X coordinate of the avatar
+     * @param velocityX horizontal velocity of the avatar
+     */
+    public void update(float x, float velocityX) {
+        int center = chunkOf(x);
+        int prefetched = Math.min(MAX_PREFETCH_CHUNKS,
+                (int) Math.ceil(Math.abs(velocityX) * PREFETCH_SECONDS / chunkWidth));
+        int left = center - chunksPerSide - (velocityX < 0 ? prefetched : 0);
+        int right = center + chunksPerSide + (velocityX > 0 ? prefetched : 0);
+        removeChunksOutside(center - keptChunksPerSide, center + keptChunksPerSide);
+        collectBuiltChunks(center);
+        for (int distance = 0; center - distance >= left || center + distance <= right; distance++) {
+            if (center + distance <= right) {
+                requestChunk(center + distance);
+            }
+            if (distance > 0 && center - distance >= left) {
+                requestChunk(center - distance);
+            }
+        }
+        disposeDiscardedChunks();
+        attachChunks(center);
+    }
+
+    /**
+     * @param budgetMillis time per frame allowed for adding new chunks' objects to the game
+     */
+    public void setAttachBudget(float budgetMillis) {
+        attachBudgetNanos = (long) (budgetMillis * 1_000_000);
+    }
+
+    /**
+     * @return X coordinate of the left border of the leftmost chunk that was asked for
+     */
+    public int leftBorder() {
+        return leftBorderOf(leftmostChunk);
+    }
+
+    /**
+     * @return X coordinate of the right border of the rightmost chunk that was asked for
+     */
+    public int rightBorder() {
+        return leftBorderOf(rightmostChunk + 1);
+    }
+
+    /**
+     * @return the generator building the chunks
+     */
+    public WorldGenerator getWorldGenerator() {
+        return worldGenerator;
+    }
+
+    /**
+     * @return width of a chunk
+     */
+    public int chunkWidth() {
+        return chunkWidth;
+    }
+
+    /**
+     * removing the chunks outside the range, including chunks that are still being built
+     *
+     * @param left  index of the leftmost chunk to keep
+     * @param right index of the rightmost chunk to keep
+     */
+    private void removeChunksOutside(int left, int right) {
+        for (int slot = 0; slot < chunks.length; slot++) {
+            int chunk = chunkIndices[slot];
+            if (chunk >= left && chunk <= right) {
+                continue;
+            }
+            if (chunks[slot] != null) {
+                attachingChunks.remove(chunks[slot]);
+                chunks[slot].removeWorld();
+                chunks[slot] = null;
+            }
+            var pending = pendingChunks.get(slot);
+            if (pending != null) {
+                discardedChunks.add(pending);
+                pendingChunks.set(slot, null);
+            }
+        }
+        leftmostChunk = Math.max(leftmostChunk, left);
+        rightmostChunk = Math.min(rightmostChunk, right);
+    }
+
+    /**
+     * moving chunks that were built to the chunks being added to the game,
+     * waiting for chunks in view since they can't be left for later
+     *
+     * @param center index of the avatar's chunk
+     */
+    private void collectBuiltChunks(int center) {
+        for (int slot = 0; slot < chunks.length; slot++) {
+            var pending = pendingChunks.get(slot);
+            if (pending == null) {
+                continue;
+            }
+            boolean isVisible = Math.abs(chunkIndices[slot] - center) <= visibleChunksPerSide;
+            if (!pending.isDone() && !isVisible) {
+                continue;
+            }
+            var world = WorldGenerator.await(pending);
+            pendingChunks.set(slot, null);
+            chunks[slot] = world;
+            attachingChunks.add(world);
+        }
+    }
+
+    /**
+     * asking to build a chunk in the background, unless it was already asked for
+     *
+     * @param chunk index of the chunk
+     */
+    private void requestChunk(int chunk) {
+        int slot = slotOf(chunk);
+        if (chunkIndices[slot] == chunk && (chunks[slot] != null || pendingChunks.get(slot) != null)) {
+            return;
+        }
+        chunkIndices[slot] = chunk;
+        pendingChunks.set(slot, worldGenerator.generate(leftBorderOf(chunk), leftBorderOf(chunk + 1)));
+        leftmostChunk = Math.min(leftmostChunk, chunk);
+        rightmostChunk = Math.max(rightmostChunk, chunk);
+    }
+
+    /**
+     * returning the objects of discarded chunks to the pools, once they were built
+     */
+    private void disposeDiscardedChunks() {
+        for (int i = discardedChunks.size() - 1; i >= 0; i--) {
+            var discarded = discardedChunks.get(i);
+            if (discarded.cancel(false) || discarded.isCancelled()) {
+                discardedChunks.remove(i);
+            } else if (discarded.isDone()) {
+                WorldGenerator.await(discarded).removeWorld();
+                discardedChunks.remove(i);
+            }
+        }
+    }
+
+    /**
+     * adding objects of new chunks to the game, chunks in view are added whole
+     * and the rest within the per-frame time budget
+     *
+     * @param center index of the avatar's chunk
+     */
+    private void attachChunks(int center) {
+        for (int i = attachingChunks.size() - 1; i >= 0; i--) {
+            var world = attachingChunks.get(i);
+            if (Math.abs(chunkOf(world.leftBorder) - center) <= visibleChunksPerSide) {
+                world.attachAll();
+                attachingChunks.remove(i);
+            }
+        }
+        long deadline = System.nanoTime() + attachBudgetNanos;
+        while (!attachingChunks.isEmpty() && attachingChunks.get(0).attach(deadline)) {
+            attachingChunks.remove(0);
+        }
+    }
+
+    /**
+     * @param x X coordinate
+     * @return index of the chunk of X
+     */
+    private int chunkOf(float x) {
+        return Math.floorDiv((int) Math.floor(x), chunkWidth);
+    }
+
+    /**
+     * @param chunk index of the chunk
+     * @return X coordinate of the chunk's left border
+     */
+    private int leftBorderOf(int chunk) {
+        return chunk * chunkWidth;
+    }
+
+    /**
+     * @param chunk index of the chunk
+     * @return slot of the chunk in the ring buffer
+     */
+    private int slotOf(int chunk) {
+        return Math.floorMod(chunk, chunks.length);
+    }
+
+    /**
+     * @param chunkWidth   width of a chunk
+     * @param visibleWidth width of the view
+     * @return amount of chunks on each side of the avatar's chunk that may be in view
+     */
+    private static int visibleChunksPerSide(int chunkWidth, int visibleWidth) {
+        return (visibleWidth / 2 + chunkWidth - 1) / chunkWidth;
+    }
+}
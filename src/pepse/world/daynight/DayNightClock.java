@@ -0,0 +1,125 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+
+/**
+ * Owns the time of the day and night cycle, and drives every celestial object from it once a frame,
+ * instead of a transition per object and a component per halo.
+ * The phase of the day goes from 0 at noon, when the game starts, through 0.5 at midnight, back to 1.
+ * The clock runs faster than the game by its time scale, so a long run can go through many days,
+ * and every object is set from the phase alone, so skipping through a day costs the same as a frame.
+ */
+public class DayNightClock extends GameObject {
+    public static final String TIME_SCALE_PROPERTY = "pepse.timeScale";
+
+    /**
+     * a celestial object set from the phase of the day
+     */
+    public interface Listener {
+        /**
+         * @param phase phase of the day, in [0, 1)
+         * @param day   amount of days that passed since the game started
+         */
+        void onTick(float phase, long day);
+    }
+
+    private final float cycleLength;
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+    private float timeScale;
+    private double cycleTime = 0;
+    private long day = 0;
+
+    /**
+     * @param cycleLength length of a day and a night in seconds
+     * @param timeScale   cycle seconds that pass in a second of the game
+     */
+    public DayNightClock(float cycleLength, float timeScale) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        this.cycleLength = cycleLength;
+        this.timeScale = timeScale;
+        setTag("dayNightClock");
+    }
+
+    /**
+     * @param cycleLength length of a day and a night in seconds
+     * @return a clock with the time scale of the pepse.timeScale system property, 1 if it isn't set
+     */
+    public static DayNightClock create(float cycleLength) {
+        return new DayNightClock(cycleLength, Float.parseFloat(System.getProperty(TIME_SCALE_PROPERTY, "1")));
+    }
+
+    /**
+     * start setting an object from the clock, it is set to the current phase right away
+     *
+     * @param listener the object's setter
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        listener.onTick(getPhase(), day);
+    }
+
+    /**
+     * @return length of a day and a night in seconds
+     */
+    public float getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * @return cycle seconds that pass in a second of the game
+     */
+    public float getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * @param timeScale cycle seconds that pass in a second of the game
+     */
+    public void setTimeScale(float timeScale) {
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * @return phase of the day, in [0, 1)
+     */
+    public float getPhase() {
+        return (float) (cycleTime / cycleLength);
+    }
+
+    /**
+     * @return amount of days that passed since the game started
+     */
+    public long getDay() {
+        return day;
+    }
+
+    /**
+     * moving the clock forward and setting every object from the new phase
+     *
+     * @param cycleSeconds cycle seconds to move forward
+     */
+    public void advance(double cycleSeconds) {
+        cycleTime += cycleSeconds;
+        if (cycleTime >= cycleLength) {
+            long days = (long) (cycleTime / cycleLength);
+            day += days;
+            cycleTime -= days * (double) cycleLength;
+        }
+        float phase = getPhase();
+        for (var listener : listeners) {
+            listener.onTick(phase, day);
+        }
+    }
+
+    /**
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        advance((double) deltaTime * timeScale);
+    }
+}
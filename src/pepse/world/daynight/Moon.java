@@ -1,9 +1,9 @@
 package pepse.world.daynight;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.gui.ImageReader;
-import danogl.gui.rendering.AnimationRenderable;
+import danogl.gui.rendering.Renderable;
+import pepse.util.AssetCache;
 
 public class Moon {
     private static final String[] PHASES =
@@ -15,18 +15,32 @@ public class Moon {
             "assets/moon/moon5.png",
             "assets/moon/moon6.png",
             "assets/moon/moon7.png"};
-    private static final float initValue = 90, finalValue = -270;
+    private static final float initValue = 90;
 
     /**
-     * @param cycleLength length of night
+     * start decoding the moon's phases in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(false, PHASES);
+    }
+
+    /**
+     * @param clock       clock of the day and night cycle, the moon shows its next phase every day
      * @param gameObjects collection of game objects
      * @param imageReader image reader
      * @return the moon object
      */
-    public static GameObject create(float cycleLength, GameObjectCollection gameObjects, ImageReader imageReader) {
-        var renderable = new AnimationRenderable(PHASES, imageReader, false, cycleLength);
-        var moon = OrbitingStar.create(gameObjects, cycleLength, renderable, initValue, finalValue);
+    public static OrbitingStar create(DayNightClock clock, GameObjectCollection gameObjects,
+                                      ImageReader imageReader) {
+        var phases = new Renderable[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            phases[i] = imageReader.readImage(PHASES[i], false);
+        }
+        var moon = OrbitingStar.create(gameObjects, clock, phases[0], initValue);
         moon.setTag("moon");
+        clock.addListener((phase, day) -> moon.renderer().setRenderable(phases[(int) (day % phases.length)]));
         return moon;
     }
 }
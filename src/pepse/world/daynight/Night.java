@@ -3,12 +3,10 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Consumer;
 
 public class Night {
     private static final Float MIDNIGHT_OPACITY = 0.7f;
@@ -16,33 +14,30 @@ public class Night {
 
     /**
      * @param windowDimensions window dimensions
-     * @param cycleLength      length of night
+     * @param clock            clock of the day and night cycle
      * @param gameObjects      collection of game objects
      * @param layer            layer of the sky
      * @return night sky object
      */
     public static GameObject create(GameObjectCollection gameObjects, int layer, Vector2 windowDimensions,
-                                    float cycleLength) {
+                                    DayNightClock clock) {
         var renderable = new RectangleRenderable(DARK_COLOR);
         var night = new GameObject(Vector2.ZERO, windowDimensions, renderable);
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(night, layer);
         night.setTag("night");
-        createCycle(night, cycleLength);
+        clock.addListener((phase, day) -> night.renderer().setOpaqueness(opacityAt(phase)));
         return night;
     }
 
     /**
-     * @param night       night sky object
-     * @param cycleLength length of the night
+     * darkening cubically from noon to midnight and lightening back to noon
+     *
+     * @param phase phase of the day
+     * @return opacity of the night sky
      */
-    private static void createCycle(GameObject night, float cycleLength) {
-        Consumer<Float> setValueCallback = night.renderer()::setOpaqueness;
-        float initValue = 0, finalValue = MIDNIGHT_OPACITY;
-        var interpolator = Transition.CUBIC_INTERPOLATOR_FLOAT;
-        float transitionTime = cycleLength / 2f;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        new Transition<>(night, setValueCallback, initValue, finalValue, interpolator,
-                transitionTime, transitionType, null);
+    static float opacityAt(float phase) {
+        float t = phase <= 0.5f ? 2 * phase : 2 - 2 * phase;
+        return MIDNIGHT_OPACITY * t * t * (3 - 2 * t);
     }
 }
@@ -3,53 +3,88 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
 
-import java.util.function.Consumer;
+import java.util.ArrayList;
 
 import static pepse.GraphicManager.WINDOW_HEIGHT;
 import static pepse.GraphicManager.WINDOW_WIDTH;
 
-public class OrbitingStar {
+/**
+ * A body going around the sky once a day on an ellipse, taking its halos with it.
+ * The ellipse is sampled once into a table, and a position is interpolated between two samples,
+ * so moving a body doesn't compute any trigonometry.
+ */
+public class OrbitingStar extends GameObject {
     private static final Vector2 DIMENSIONS = new Vector2(90, 90);
     private static final float
             WINDOW_HEIGHT_TO_TOP_POS_FACTOR = 1.07692308f,
             WINDOW_WIDTH_TO_LEFT_POS_FACTOR = 2.54545455f;
+    private static final float FULL_CIRCLE = 360;
+    private static final int TABLE_SIZE = 720;
+    private static final float[] ELLIPSE_X = new float[TABLE_SIZE + 1], ELLIPSE_Y = new float[TABLE_SIZE + 1];
+
+    static {
+        double widthRadius = WINDOW_WIDTH / WINDOW_WIDTH_TO_LEFT_POS_FACTOR;
+        double heightRadius = WINDOW_HEIGHT / WINDOW_HEIGHT_TO_TOP_POS_FACTOR;
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            double angle = 2 * Math.PI * i / TABLE_SIZE;
+            ELLIPSE_X[i] = (float) (WINDOW_WIDTH / 2f + widthRadius * Math.cos(angle));
+            ELLIPSE_Y[i] = (float) (WINDOW_HEIGHT + heightRadius * Math.sin(angle));
+        }
+    }
+
+    private final float initialAngle;
+    private final ArrayList<GameObject> halos = new ArrayList<>();
 
     /**
-     * @param cycleLength half day length
-     * @param gameObjects collection of game objects
-     * @param renderable  renderable
-     * @param initValue   begin value
-     * @param finalValue  end value
+     * @param renderable   renderable
+     * @param initialAngle angle in the sky at noon, the body goes backwards from it a full circle a day
+     */
+    private OrbitingStar(Renderable renderable, float initialAngle) {
+        super(Vector2.ZERO, DIMENSIONS, renderable);
+        this.initialAngle = initialAngle;
+    }
+
+    /**
+     * @param gameObjects  collection of game objects
+     * @param clock        clock of the day and night cycle
+     * @param renderable   renderable
+     * @param initialAngle angle in the sky at noon
      * @return OrbitingStar game object
      */
-    public static GameObject create(GameObjectCollection gameObjects, float cycleLength,
-                                    Renderable renderable, float initValue, float finalValue) {
-        var orbitingStar = new GameObject(Vector2.ZERO, DIMENSIONS, renderable);
+    public static OrbitingStar create(GameObjectCollection gameObjects, DayNightClock clock,
+                                      Renderable renderable, float initialAngle) {
+        var orbitingStar = new OrbitingStar(renderable, initialAngle);
         orbitingStar.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(orbitingStar, GraphicManager.SUN_LAYER);
-        createCycle(orbitingStar, cycleLength, initValue, finalValue);
+        clock.addListener((phase, day) -> orbitingStar.orbit(phase));
         return orbitingStar;
     }
 
     /**
-     * @param orbitingStar   game object
-     * @param transitionTime the transition time
-     * @param initValue      begin value
-     * @param finalValue     end value
+     * start moving a halo with the body
+     *
+     * @param halo the halo
      */
-    private static void createCycle(GameObject orbitingStar, float transitionTime, float initValue,
-                                    float finalValue) {
-        Consumer<Float> setValueCallback =
-                angleInSky -> orbitingStar.setCenter(calcPositionEllipse(angleInSky));
-        var interpolator = Transition.LINEAR_INTERPOLATOR_FLOAT;
-        var transitionType = Transition.TransitionType.TRANSITION_LOOP;
-        new Transition<>(orbitingStar, setValueCallback, initValue, finalValue, interpolator,
-                transitionTime, transitionType, null);
+    public void addHalo(GameObject halo) {
+        halo.setCenter(getCenter());
+        halos.add(halo);
+    }
+
+    /**
+     * moving the body and its halos to their place at a phase of the day
+     *
+     * @param phase phase of the day
+     */
+    private void orbit(float phase) {
+        var center = calcPositionEllipse(initialAngle - FULL_CIRCLE * phase);
+        setCenter(center);
+        for (var halo : halos) {
+            halo.setCenter(center);
+        }
     }
 
     /**
@@ -57,11 +92,12 @@ public class OrbitingStar {
      * @return vector of object's center, calculated based on the angle
      */
     private static Vector2 calcPositionEllipse(float angleInSky) {
-        double widthRadius = WINDOW_WIDTH / WINDOW_WIDTH_TO_LEFT_POS_FACTOR;
-        double heightRadius = WINDOW_HEIGHT / WINDOW_HEIGHT_TO_TOP_POS_FACTOR;
-        var center = Vector2.of(WINDOW_WIDTH / 2f, WINDOW_HEIGHT);
-        float x = (float) (center.x() + widthRadius * Math.cos(angleInSky * Math.PI / 180.0));
-        float y = (float) (center.y() + heightRadius * Math.sin(angleInSky * Math.PI / 180.0));
+        float turns = angleInSky / FULL_CIRCLE;
+        float index = (turns - (float) Math.floor(turns)) * TABLE_SIZE;
+        int i = Math.min((int) index, TABLE_SIZE - 1);
+        float fraction = index - i;
+        float x = ELLIPSE_X[i] + (ELLIPSE_X[i + 1] - ELLIPSE_X[i]) * fraction;
+        float y = ELLIPSE_Y[i] + (ELLIPSE_Y[i + 1] - ELLIPSE_Y[i]) * fraction;
         return Vector2.of(x, y);
     }
 }
@@ -3,54 +3,60 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.ImageReader;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
-
-
-import java.util.function.Consumer;
+import pepse.util.AssetCache;
 
 public class Stars {
     private static final String STARS_IMG_PATH = "assets/stars.png";
-    private static boolean isNight = false;
-    private static GameObject stars;
+    private static final float NIGHT_START = 0.375f, NIGHT_END = 0.625f;
+    private static final float FADE_IN_TIME = 3, FADE_OUT_TIME = 1;
+
+    /**
+     * start decoding the stars' image in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(false, STARS_IMG_PATH);
+    }
 
     /**
-     * @param cycleLength length of night
+     * @param clock       clock of the day and night cycle
      * @param gameObjects collection of game objects
      * @param imageReader image reader
+     * @return the stars object
      */
-    public static void create(float cycleLength, GameObjectCollection gameObjects, ImageReader imageReader) {
+    public static GameObject create(DayNightClock clock, GameObjectCollection gameObjects,
+                                    ImageReader imageReader) {
         var renderable = imageReader.readImage(STARS_IMG_PATH, false);
-        stars = new GameObject(Vector2.ZERO, GraphicManager.WINDOW_DIMENSIONS, renderable);
-        stars.renderer().fadeOut(0);
+        var stars = new GameObject(Vector2.ZERO, GraphicManager.WINDOW_DIMENSIONS, renderable);
         stars.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         stars.setTag("stars");
-        createCycle(cycleLength);
+        float cycleLength = clock.getCycleLength();
+        clock.addListener((phase, day) -> stars.renderer().setOpaqueness(opacityAt(phase * cycleLength,
+                cycleLength)));
         gameObjects.addGameObject(stars, GraphicManager.SKY_LAYER);
+        return stars;
     }
 
     /**
-     * @param cycleLength length of night
+     * fading in at the beginning of the night, and out faster at its end
+     *
+     * @param time        seconds since noon
+     * @param cycleLength length of a day and a night in seconds
+     * @return opacity of the stars
      */
-    private static void createCycle(float cycleLength) {
-        Consumer<Float> setValueCallback = time -> fade(time, cycleLength);
-        var interpolator = Transition.LINEAR_INTERPOLATOR_FLOAT;
-        float transitionTime = cycleLength / 2f;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        new Transition<>(stars, setValueCallback, 0f, cycleLength, interpolator,
-                transitionTime, transitionType, null);
-    }
-
-    private static void fade(float time, float cycleLength) {
-        if (time > cycleLength * 0.75 && !isNight) {
-            stars.renderer().fadeIn(3);
-            isNight = true;
+    static float opacityAt(float time, float cycleLength) {
+        float sinceNightStart = time - NIGHT_START * cycleLength;
+        float sinceNightEnd = time - NIGHT_END * cycleLength;
+        if (sinceNightStart < 0 || sinceNightEnd >= FADE_OUT_TIME) {
+            return 0;
         }
-        if (time < cycleLength * 0.75 && isNight) {
-            stars.renderer().fadeOut(1);
-            isNight = false;
+        if (sinceNightEnd >= 0) {
+            return 1 - sinceNightEnd / FADE_OUT_TIME;
         }
+        return Math.min(1, sinceNightStart / FADE_IN_TIME);
     }
 }
@@ -3,13 +3,21 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.gui.rendering.OvalRenderable;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import static pepse.GraphicManager.HALO_LAYER;
 
+/**
+ * The glow around a body: rings of a translucent color, one for every size factor, which add up
+ * to a radial gradient. The rings are painted once into an image, so the halo is drawn as one object
+ * instead of an overlapping oval per ring.
+ */
 public class SunHalo {
     private static final float DEFAULT_SUN_TO_HALO_FACTOR = 1.3f;
 
@@ -20,19 +28,55 @@ public class SunHalo {
      * @param layer       layer of the followed object
      * @return sun halo game object
      */
-    public static GameObject create(GameObjectCollection gameObjects, int layer, GameObject sun, Color color) {
+    public static GameObject create(GameObjectCollection gameObjects, int layer, OrbitingStar sun,
+                                    Color color) {
         return myCreate(gameObjects, sun, color, DEFAULT_SUN_TO_HALO_FACTOR);
     }
 
-    public static GameObject myCreate(GameObjectCollection gameObjects, GameObject star,
-                                      Color color, float sunToHaloFactor) {
-        var dimensions = star.getDimensions().mult(sunToHaloFactor);
-        var renderable = new OvalRenderable(color);
+    /**
+     * @param gameObjects      collection of game objects
+     * @param star             the body the halo moves with
+     * @param color            color of every ring
+     * @param sunToHaloFactors size of every ring relative to the body
+     * @return halo game object
+     */
+    public static GameObject myCreate(GameObjectCollection gameObjects, OrbitingStar star,
+                                      Color color, float... sunToHaloFactors) {
+        float maxFactor = 0;
+        for (float factor : sunToHaloFactors) {
+            maxFactor = Math.max(maxFactor, factor);
+        }
+        var dimensions = star.getDimensions().mult(maxFactor);
+        var renderable = new ImageRenderable(paintRings(dimensions, color, sunToHaloFactors, maxFactor));
         var sunHalo = new GameObject(Vector2.ZERO, dimensions, renderable);
         sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(sunHalo, HALO_LAYER);
-        sunHalo.setTag("halo: sizeFactor=" + sunToHaloFactor + ", color=" + color);
-        sunHalo.addComponent(deltaTime -> sunHalo.setCenter(star.getCenter()));
+        sunHalo.setTag("halo: sizeFactors=" + Arrays.toString(sunToHaloFactors) + ", color=" + color);
+        star.addHalo(sunHalo);
         return sunHalo;
     }
-}
\ No newline at end of file
+
+    /**
+     * painting the rings on top of each other, centered, the largest filling the image
+     *
+     * @param dimensions size of the image
+     * @param color      color of every ring
+     * @param factors    size of every ring relative to the body
+     * @param maxFactor  size of the largest ring relative to the body
+     * @return image of the halo
+     */
+    private static BufferedImage paintRings(Vector2 dimensions, Color color, float[] factors, float maxFactor) {
+        int width = (int) Math.ceil(dimensions.x()), height = (int) Math.ceil(dimensions.y());
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        var graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setColor(color);
+        for (float factor : factors) {
+            float ringWidth = width * factor / maxFactor, ringHeight = height * factor / maxFactor;
+            graphics.fill(new Ellipse2D.Float((width - ringWidth) / 2, (height - ringHeight) / 2,
+                    ringWidth, ringHeight));
+        }
+        graphics.dispose();
+        return image;
+    }
+}
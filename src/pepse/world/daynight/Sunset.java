@@ -3,43 +3,49 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.ImageReader;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
-
-import java.util.function.Consumer;
+import pepse.util.AssetCache;
 
 public class Sunset {
+    private static final String SUNSET_IMG_PATH = "assets/sunset.png";
+
+    /**
+     * start decoding the sunset's image in the background
+     *
+     * @param assets the asset cache
+     */
+    public static void preload(AssetCache assets) {
+        assets.preloadImages(false, SUNSET_IMG_PATH);
+    }
+
     /**
      * @param gameObjects collection of game objects
      * @param imageReader image reader
+     * @param clock       clock of the day and night cycle
      * @return game object of sunset
      */
-    public static GameObject create(GameObjectCollection gameObjects, ImageReader imageReader) {
-        var image = imageReader.readImage("assets/sunset.png", false);
+    public static GameObject create(GameObjectCollection gameObjects, ImageReader imageReader,
+                                    DayNightClock clock) {
+        var image = imageReader.readImage(SUNSET_IMG_PATH, false);
         var pos = Vector2.ZERO;
         var sunset = new GameObject(pos, GraphicManager.WINDOW_DIMENSIONS, image);
         sunset.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        createCycle(sunset);
+        clock.addListener((phase, day) -> sunset.renderer().setOpaqueness(opacityAt(phase)));
         sunset.setTag("sunset");
         gameObjects.addGameObject(sunset, GraphicManager.SUNSET_LAYER);
         return sunset;
     }
 
     /**
-     * create the cycle of the sunset
+     * showing linearly up to the evening and the morning, and hiding at noon and midnight
      *
-     * @param sunset sunset game object
+     * @param phase phase of the day
+     * @return opacity of the sunset
      */
-    private static void createCycle(GameObject sunset) {
-        Consumer<Float> setValueCallback = sunset.renderer()::setOpaqueness;
-        float initValue = 0, finalValue = 1;
-        var interpolator = Transition.CUBIC_INTERPOLATOR_FLOAT;
-        interpolator = Transition.LINEAR_INTERPOLATOR_FLOAT;
-        float transitionTime = GraphicManager.DAY_CYCLE_LENGTH / 4;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        new Transition<>(sunset, setValueCallback, initValue, finalValue, interpolator,
-                transitionTime, transitionType, null);
+    static float opacityAt(float phase) {
+        float quarters = 4 * phase % 2;
+        return quarters <= 1 ? quarters : 2 - quarters;
     }
 }
@@ -2,59 +2,80 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
 
-import pepse.util.ColorSupplier;
+import pepse.GraphicManager;
+import pepse.jfr.LeafFellEvent;
+import pepse.jfr.LeafRevivedEvent;
+import pepse.util.ObjectPool;
 import pepse.world.Block;
+import pepse.world.Palette;
+import pepse.world.Terrain;
 
-import java.util.List;
 import java.awt.*;
 import java.util.Objects;
 import java.util.Random;
-import java.util.function.Consumer;
 
+/**
+ * A leaf that lives on its tree for a random lifespan, falls while fading out, and then revives in place.
+ * The whole life cycle runs in update, so a leaf never allocates components, tasks or a new leaf to revive.
+ * The fall is a function of the time since it started, so a leaf outside the view bounds sleeps,
+ * and when it's back in view its life cycle is fast-forwarded by the time it slept. Every life draws the same
+ * random durations, so the fast-forward skips whole life cycles and only plays the last one.
+ * A falling leaf is drawn between its places of the last two frames.
+ */
 public class Leaf extends Block {
-    private static final Color BASE_COLOR = new Color(50, 200, 30);
-    private static final float MAX_ROTATION_ANGLE = 5;
-    private static final float MIN_ROTATION_ANGLE = -1 * MAX_ROTATION_ANGLE;
-    private static final float MAX_GROWTH_FACTOR = 1.15f;
-    private static final float MIN_GROWTH_FACTOR = 2 - MAX_GROWTH_FACTOR;
-    private static final float WIND_CYCLE = 1.6f;
+    public static final ObjectPool<Leaf> POOL = new ObjectPool<>("leaf", 2048);
+    private static final Palette PALETTE = new Palette(new Color(50, 200, 30));
     private static final int MAX_WIND_DELAY_TIME = 2;
     private static final int MAX_LIFESPAN = 35;
     private static final int FALL_SPEED = 50;
-    private static final Vector2 FALL_VECTOR = Vector2.DOWN.mult(FALL_SPEED);
-    private static final Vector2 FALL_RIGHT = FALL_VECTOR.add(Vector2.RIGHT.mult(80));
-    private static final Vector2 FALL_LEFT = FALL_VECTOR.add(Vector2.LEFT.mult(80));
+    private static final float FALL_SWAY_SPEED = 80;
+    private static final float FALL_SWAY_CYCLE = 1;
     private static final float FADE_OUT_TIME = 7f;
+    private static final float FALL_STEP = 1f / GraphicManager.DESIRED_FPS;
     private static final int NO_WEIGHT = 0;
-    private Transition<Vector2> FALL_TRANSITION;
 
-    private final Random rand;
-    private final Vector2 initialLocation;
-    private final List<GameObject> trunk;
-    private final Tree tree;
+    private final Random rand = new Random();
+    private int randSeed;
+    private float windDelay;
+    private int windSlot = Wind.NO_SLOT;
+    private boolean isOutOfGame = false;
+    private Vector2 initialLocation;
+    private Tree tree;
+    private int seed;
+    private boolean isFalling, isLanded;
+    private boolean isAsleep = false;
+    private float stateTime, stateDuration;
+    private float fallDuration, cycleDuration;
+    private double sleptTime = 0;
+    private float previousX, previousY;
 
     /**
      * @param topLeftCorner top left corner
      * @param tree          the leaf's tree
-     * @param trunk         the leaf's trunk
      * @param seed          the seed
      */
-    Leaf(Vector2 topLeftCorner, Tree tree, List<GameObject> trunk, int seed) {
+    private Leaf(Vector2 topLeftCorner, Tree tree, int seed) {
         super(topLeftCorner, null);
-        this.initialLocation = new Vector2(topLeftCorner);
-        physics().setMass(NO_WEIGHT);
-        this.trunk = trunk;
-        this.tree = tree;
-        rand = new Random(Objects.hash(topLeftCorner.x(), topLeftCorner.y(), seed));
-        var color = ColorSupplier.approximateColor(BASE_COLOR);
-        this.renderer().setRenderable(new RectangleRenderable(color));
-        addWind();
-        addLifespan();
+        init(topLeftCorner, tree, seed);
+    }
+
+    /**
+     * @param topLeftCorner top left corner
+     * @param tree          the leaf's tree
+     * @param seed          the seed
+     * @return a leaf from the pool, or a new one if the pool is empty
+     */
+    static Leaf obtain(Vector2 topLeftCorner, Tree tree, int seed) {
+        var leaf = POOL.poll();
+        if (leaf == null) {
+            return new Leaf(topLeftCorner, tree, seed);
+        }
+        leaf.reset(topLeftCorner, null);
+        leaf.init(topLeftCorner, tree, seed);
+        return leaf;
     }
 
     /**
@@ -76,23 +97,114 @@ public class Leaf extends Block {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        removeComponent(FALL_TRANSITION);
-        this.setVelocity(Vector2.ZERO);
-        transform().setAccelerationY(FALL_SPEED * 2);
+        land();
+    }
+
+    /**
+     * joining the wind on the first update, so only leaves that are in the game sway,
+     * and advancing the life cycle of the leaf, or sleeping while it's outside the view bounds
+     *
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        if (windSlot == Wind.NO_SLOT && !isOutOfGame) {
+            windSlot = tree.getWind().add(this, windDelay);
+        }
+        isAsleep = !tree.getViewBounds().contains(initialLocation.x(), Block.SIZE);
+        if (isAsleep) {
+            sleptTime += deltaTime;
+            return;
+        }
+        super.update(deltaTime);
+        savePrevious();
+        advance((float) (sleptTime + deltaTime));
+        if (sleptTime > 0) {
+            // a leaf that woke up isn't drawn moving from where it fell asleep
+            savePrevious();
+        }
+        sleptTime = 0;
+    }
+
+    /**
+     * drawing the leaf between its places of the last two frames
+     *
+     * @param g      graphics of the frame
+     * @param camera the camera
+     */
+    @Override
+    public void render(Graphics2D g, Camera camera) {
+        var corner = getTopLeftCorner();
+        float x = corner.x(), y = corner.y();
+        if (x == previousX && y == previousY) {
+            super.render(g, camera);
+            return;
+        }
+        var interpolator = tree.getInterpolator();
+        transform().setTopLeftCorner(interpolator.interpolate(previousX, x),
+                interpolator.interpolate(previousY, y));
+        super.render(g, camera);
+        transform().setTopLeftCorner(x, y);
     }
 
     /**
-     * @return initial location
+     * @return true if the leaf was outside the view bounds in its last update
      */
-    Vector2 getInitialLocation() {
-        return initialLocation;
+    boolean isAsleep() {
+        return isAsleep;
     }
 
     /**
-     * @return the leaf's trunk
+     * stop swaying, called when the leaf is removed from the game
      */
-    List<GameObject> getTrunk() {
-        return trunk;
+    void leaveWind() {
+        isOutOfGame = true;
+        if (windSlot != Wind.NO_SLOT) {
+            tree.getWind().remove(windSlot);
+            windSlot = Wind.NO_SLOT;
+        }
+    }
+
+    /**
+     * @param windSlot the leaf's slot in the wind
+     */
+    void setWindSlot(int windSlot) {
+        this.windSlot = windSlot;
+    }
+
+    /**
+     * @param topLeftCorner top left corner
+     * @param tree          the leaf's tree
+     * @param seed          the seed
+     */
+    private void init(Vector2 topLeftCorner, Tree tree, int seed) {
+        this.initialLocation = new Vector2(topLeftCorner);
+        physics().setMass(NO_WEIGHT);
+        this.tree = tree;
+        this.seed = seed;
+        isOutOfGame = false;
+        isAsleep = false;
+        sleptTime = 0;
+        previousX = topLeftCorner.x();
+        previousY = topLeftCorner.y();
+        randSeed = Objects.hash(topLeftCorner.x(), topLeftCorner.y(), seed);
+        int x = (int) topLeftCorner.x(), y = (int) topLeftCorner.y();
+        this.renderer().setRenderable(PALETTE.renderableAt(x, y, seed));
+        startLife();
+    }
+
+    /**
+     * drawing the wind delay, the lifespan and the fall's duration, the same ones every time the leaf revives
+     */
+    private void startLife() {
+        rand.setSeed(randSeed);
+        windDelay = getWaitTime();
+        isFalling = false;
+        isLanded = false;
+        stateTime = 0;
+        stateDuration = rand.nextInt(MAX_LIFESPAN);
+        fallDuration = FADE_OUT_TIME + getWaitTime();
+        cycleDuration = stateDuration + fallDuration;
     }
 
     /**
@@ -107,70 +219,133 @@ public class Leaf extends Block {
     }
 
     /**
-     * adding wind effect
+     * advancing the life cycle by any amount of time, so a frame and a long sleep end up in the same state.
+     * If the leaf revives in that time, it revives right away into the life cycle the time ends in,
+     * since reviving puts it back in place and the cycles in between would all end the same way
+     *
+     * @param time time to advance by
      */
-    private void addWind() {
-        float waitTime = getWaitTime();
-        new ScheduledTask(this, waitTime, false, this::createWind);
+    private void advance(float time) {
+        float untilRevive = stateDuration - stateTime + (isFalling ? 0 : fallDuration);
+        if (time >= untilRevive) {
+            time = (time - untilRevive) % cycleDuration;
+            revive(time);
+        }
+        float remaining = stateDuration - stateTime;
+        while (time >= remaining) {
+            advanceState(remaining);
+            time -= remaining;
+            if (isFalling) {
+                revive(time);
+            } else {
+                startFall();
+            }
+            remaining = stateDuration - stateTime;
+        }
+        advanceState(time);
     }
 
     /**
-     * creating the wind effect
+     * @param time time to advance the current state by, up to its end
      */
-    private void createWind() {
-        createRotation();
-        createDimensionChanges();
+    private void advanceState(float time) {
+        float previousTime = stateTime;
+        stateTime += time;
+        if (!isFalling) {
+            return;
+        }
+        renderer().setOpaqueness(Math.max(0, 1 - stateTime / FADE_OUT_TIME));
+        for (float fallTime = previousTime; !isLanded && fallTime < stateTime; ) {
+            fallTime = Math.min(fallTime + FALL_STEP, stateTime);
+            fallTo(fallTime);
+        }
     }
 
     /**
-     * creating the rotation of the leaf
+     * starting the fall, which fades the leaf out while it sways from side to side
      */
-    private void createRotation() {
-        Consumer<Float> setValueCallback = angle -> this.renderer().setRenderableAngle(angle);
-        var interpolator = Transition.LINEAR_INTERPOLATOR_FLOAT;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        new Transition<>(this, setValueCallback, MIN_ROTATION_ANGLE, MAX_ROTATION_ANGLE,
-                interpolator, WIND_CYCLE, transitionType, null);
+    private void startFall() {
+        isFalling = true;
+        isLanded = false;
+        stateTime = 0;
+        stateDuration = fallDuration;
+        var event = new LeafFellEvent();
+        if (event.shouldCommit()) {
+            event.x = getTopLeftCorner().x();
+            event.y = getTopLeftCorner().y();
+            event.commit();
+        }
     }
 
     /**
-     * change the size of the leaf, as part of the wind effect
+     * moving the leaf to where it is after falling for some time, swaying back and forth between
+     * falling right and falling left. The terrain is a height field, so instead of testing the leaf against
+     * the terrain's blocks, the leaf lands once its bottom reaches the ground height of its column
+     *
+     * @param fallTime time since the fall started
      */
-    private void createDimensionChanges() {
-        Consumer<Float> setValueCallback =
-                growthFactor -> this.setDimensions(new Vector2(Block.SIZE * growthFactor, Block.SIZE));
-        var interpolator = Transition.LINEAR_INTERPOLATOR_FLOAT;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        new Transition<>(this, setValueCallback, MIN_GROWTH_FACTOR, MAX_GROWTH_FACTOR,
-                interpolator, WIND_CYCLE, transitionType, null);
+    private void fallTo(float fallTime) {
+        float swayOffset = FALL_SWAY_SPEED * FALL_SWAY_CYCLE * swayOffset(fallTime / FALL_SWAY_CYCLE);
+        float x = initialLocation.x() + swayOffset;
+        float y = initialLocation.y() + FALL_SPEED * fallTime;
+        float height = getDimensions().y();
+        int groundHeight = Terrain.myGroundHeightAt(x + Block.SIZE / 2f, seed);
+        if (y + height >= groundHeight) {
+            y = groundHeight - height;
+            land();
+        }
+        transform().setTopLeftCorner(x, y);
     }
 
     /**
-     * adding life span
+     * the sway's speed goes linearly from 1 to -1 and back every 2 cycles, this is its integral
+     *
+     * @param cycles sway cycles since the fall started
+     * @return horizontal offset in cycles times the sway speed
      */
-    private void addLifespan() {
-        float waitTime = rand.nextInt(MAX_LIFESPAN);
-        new ScheduledTask(this, waitTime, false, this::createFall);
+    private static float swayOffset(float cycles) {
+        float t = cycles % 2;
+        return t <= 1 ? t - t * t : (t - 1) * (t - 2);
+    }
 
+    /**
+     * saving where the leaf is, as the place it's drawn from until the next frame
+     */
+    private void savePrevious() {
+        var corner = getTopLeftCorner();
+        previousX = corner.x();
+        previousY = corner.y();
     }
 
     /**
-     * creating the fall effect
+     * stop falling, the leaf lies on the ground until it revives
      */
-    private void createFall() {
-        renderer().fadeOut(FADE_OUT_TIME);
-        new ScheduledTask(this, FADE_OUT_TIME + getWaitTime(), false, this::reviveLeaf);
-        Consumer<Vector2> setValueCallback = this::setVelocity;
-        var interpolator = Transition.LINEAR_INTERPOLATOR_VECTOR;
-        var transitionType = Transition.TransitionType.TRANSITION_BACK_AND_FORTH;
-        FALL_TRANSITION = new Transition<>(this, setValueCallback, FALL_RIGHT, FALL_LEFT,
-                interpolator, 1, transitionType, null);
+    private void land() {
+        isLanded = true;
+        transform().setVelocity(0, 0);
+        transform().setAcceleration(0, 0);
     }
 
     /**
-     * reviving the leaf after fall
+     * bringing the leaf back to its place on the tree, without replacing it
+     *
+     * @param overdue time that passed since the leaf should have revived, when it was asleep
      */
-    private void reviveLeaf() {
-        tree.resetLeaf(this);
+    private void revive(float overdue) {
+        var event = new LeafRevivedEvent();
+        if (event.shouldCommit()) {
+            event.x = initialLocation.x();
+            event.y = initialLocation.y();
+            event.commit();
+        }
+        transform().setTopLeftCorner(initialLocation.x(), initialLocation.y());
+        transform().setVelocity(0, 0);
+        transform().setAcceleration(0, 0);
+        savePrevious();
+        renderer().setOpaqueness(1);
+        startLife();
+        if (windSlot != Wind.NO_SLOT) {
+            tree.getWind().restart(windSlot, windDelay - overdue);
+        }
     }
 }
@@ -4,8 +4,11 @@ import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.util.Vector2;
 import pepse.GraphicManager;
+import pepse.util.RenderInterpolator;
+import pepse.world.AttachQueue;
 import pepse.world.Block;
-import pepse.world.Terrain;
+import pepse.world.ChunkData;
+import pepse.world.ViewBounds;
 
 import java.util.*;
 
@@ -16,44 +19,125 @@ public class Tree {
     private static final int MIN_TRUNK_LENGTH = 4;
     private static final float TRUNK_LENGTH_TO_TREETOP_RADIUS_FACTOR = 1 / 3f;
     public static final int TREETOP_LAYER_SPACER = 1;
+    private static final float SPACE_ABOVE_TERRAIN =
+            GraphicManager.WINDOW_HEIGHT_TO_TERRAIN_FACTOR * GraphicManager.WINDOW_HEIGHT;
+    private static final int MAX_TRUNK_LENGTH =
+            (int) (SPACE_ABOVE_TERRAIN - SPACE_ABOVE_TERRAIN * SKY_TO_LENGTH_FACTOR) / Block.SIZE;
+
+    static {
+        int side = treetopSide(MAX_TRUNK_LENGTH);
+        if (side * side > ChunkData.MAX_TREETOP_CELLS) {
+            throw new ExceptionInInitializerError("treetops don't fit in the chunk data's leaf masks");
+        }
+    }
 
     private final HashMap<List<GameObject>, List<GameObject>> treetopByTrunk = new HashMap<>();
+    private final ArrayList<List<GameObject>> pendingTrunks = new ArrayList<>();
     private final GameObjectCollection gameObjects;
+    private final AttachQueue attachQueue;
+    private final Wind wind;
+    private final ViewBounds viewBounds;
+    private final RenderInterpolator interpolator;
     private final int trunkLayer, treetopLayer;
     private final int seed;
-    private Random rand;
+    private int blockCount = 0;
 
     /**
-     * @param gameObjects collection of game objects
-     * @param treeLayer   layer of the tree
-     * @param seed        the seed
+     * @param gameObjects  collection of game objects
+     * @param treeLayer    layer of the tree
+     * @param seed         the seed
+     * @param attachQueue  queue of objects waiting to be added to the game
+     * @param wind         the wind swaying the leaves
+     * @param viewBounds   the range in which the leaves are awake
+     * @param interpolator draws the falling leaves between the last two steps
      */
-    public Tree(GameObjectCollection gameObjects, int treeLayer, int seed) {
+    public Tree(GameObjectCollection gameObjects, int treeLayer, int seed, AttachQueue attachQueue, Wind wind,
+                ViewBounds viewBounds, RenderInterpolator interpolator) {
         this.gameObjects = gameObjects;
+        this.attachQueue = attachQueue;
+        this.wind = wind;
+        this.viewBounds = viewBounds;
+        this.interpolator = interpolator;
         trunkLayer = treeLayer;
         treetopLayer = trunkLayer + TREETOP_LAYER_SPACER;
         this.seed = seed;
     }
 
     /**
+     * creating trees in range, the whole batch is added to the game once all the trees were built
+     *
      * @param minX min X to locate
      * @param maxX max X to locate
      */
     public void createInRange(int minX, int maxX) {
-        for (int x = minX; x < maxX; x += Block.SIZE) {
-            rand = new Random(Objects.hash(x, seed));
-            double isTreeShouldBeCreated = rand.nextDouble();
-            if (isTreeShouldBeCreated > TREE_CREATION_PERCENTAGE) {
+        int columns = Math.max(0, (maxX - minX + Block.SIZE - 1) / Block.SIZE);
+        createFrom(ChunkData.generate(Math.floorDiv(minX, Block.SIZE), columns, seed));
+    }
+
+    /**
+     * creating the trees of generated columns,
+     * the whole batch is added to the game once all the trees were built
+     *
+     * @param data the generated columns
+     */
+    public void createFrom(ChunkData data) {
+        for (int i = 0; i < data.columns(); i++) {
+            int trunkLength = data.trunkLength(i);
+            if (trunkLength == 0) {
                 continue;
             }
-            int trunkLength = getTrunkLength();
+            int x = (data.firstColumn() + i) * Block.SIZE;
             var trunk = Trunk.create(x, trunkLength, seed);
-            var treetop = createTreetop(x, trunkLength, trunk);
+            var treetop = createTreetop(data, i, trunkLength);
             treetopByTrunk.put(trunk, treetop);
-            addTreeToGame();
+            pendingTrunks.add(trunk);
+            blockCount += trunk.size() + treetop.size();
+        }
+        addTreeToGame();
+    }
+
+    /**
+     * deciding which columns grow trees, and the trunk length and leaves of each tree
+     *
+     * @param data the generated columns, with their heights
+     * @param seed the seed
+     */
+    public static void plan(ChunkData data, int seed) {
+        var leafMask = new long[ChunkData.MAX_TREETOP_CELLS / Long.SIZE];
+        for (int i = 0; i < data.columns(); i++) {
+            int x = (data.firstColumn() + i) * Block.SIZE;
+            var rand = new Random(Objects.hash(x, seed));
+            double isTreeShouldBeCreated = rand.nextDouble();
+            if (isTreeShouldBeCreated > TREE_CREATION_PERCENTAGE) {
+                continue;
+            }
+            int trunkLength = getTrunkLength(rand);
+            int side = treetopSide(trunkLength);
+            Arrays.fill(leafMask, 0);
+            for (int cell = 0; cell < side * side; cell++) {
+                double isLeafShouldBeCreated = rand.nextDouble();
+                if (isLeafShouldBeCreated <= LEAF_CREATION_PERCENTAGE) {
+                    leafMask[cell / Long.SIZE] |= 1L << cell;
+                }
+            }
+            data.setTree(i, trunkLength, leafMask);
         }
     }
 
+    /**
+     * @return amount of trees
+     */
+    public int treeCount() {
+        return treetopByTrunk.size();
+    }
+
+    /**
+     * @return amount of trunk blocks and leaves
+     */
+    public int blockCount() {
+        return blockCount;
+    }
+
     /**
      * delete tree
      */
@@ -61,86 +145,84 @@ public class Tree {
         for (var trunk : treetopByTrunk.keySet()) {
             for (var block : trunk) {
                 gameObjects.removeGameObject(block, trunkLayer);
+                Block.POOL.release((Block) block);
             }
             for (var leaf : treetopByTrunk.get(trunk)) {
                 gameObjects.removeGameObject(leaf, treetopLayer);
+                ((Leaf) leaf).leaveWind();
+                Leaf.POOL.release((Leaf) leaf);
             }
         }
     }
 
     /**
-     * reseting leaf in the game
-     *
-     * @param leafToReset leaf
+     * @return the wind swaying the leaves
+     */
+    Wind getWind() {
+        return wind;
+    }
+
+    /**
+     * @return the range in which the leaves are awake
      */
-    void resetLeaf(Leaf leafToReset) {
-        var trunk = leafToReset.getTrunk();
-        var leaves = treetopByTrunk.get(trunk);
-        int i = leaves.indexOf(leafToReset);
-        Leaf leaf = new Leaf(leafToReset.getInitialLocation(), this, trunk, seed);
-        leaves.set(i, leaf);
-        gameObjects.removeGameObject(leafToReset, treetopLayer);
-        gameObjects.addGameObject(leaf, treetopLayer);
+    ViewBounds getViewBounds() {
+        return viewBounds;
     }
 
     /**
-     * @param trunkX      X coordinate
+     * @return draws the falling leaves between the last two steps
+     */
+    RenderInterpolator getInterpolator() {
+        return interpolator;
+    }
+
+    /**
+     * @param data        the generated columns
+     * @param i           index of the trunk's column in the data
      * @param trunkLength length of trunk
-     * @param trunk       the trunk
      * @return the leaves
      */
-    private ArrayList<GameObject> createTreetop(int trunkX, int trunkLength, List<GameObject> trunk) {
-        int radius = (int) (trunkLength * TRUNK_LENGTH_TO_TREETOP_RADIUS_FACTOR) * Block.SIZE;
-        int minX = trunkX - radius;
-        int minY = Terrain.myGroundHeightAt(trunkX, seed) - (trunkLength * Block.SIZE) - radius;
-        int maxX = minX + 2 * radius, maxY = minY + 2 * radius;
+    private ArrayList<GameObject> createTreetop(ChunkData data, int i, int trunkLength) {
+        int side = treetopSide(trunkLength);
+        int radius = side / 2 * Block.SIZE;
+        int minX = (data.firstColumn() + i) * Block.SIZE - radius;
+        int minY = data.height(i) - (trunkLength * Block.SIZE) - radius;
         var leaves = new ArrayList<GameObject>();
-        for (int x = minX; x <= maxX; x += Block.SIZE) {
-            for (int y = minY; y <= maxY; y += Block.SIZE) {
-                var leaf = createLeaf(x, y, trunk);
-                if (leaf != null) {
-                    leaves.add(leaf);
-                }
+        for (int cell = 0; cell < side * side; cell++) {
+            if (data.hasLeaf(i, cell)) {
+                int x = minX + cell / side * Block.SIZE, y = minY + cell % side * Block.SIZE;
+                leaves.add(Leaf.obtain(new Vector2(x, y), this, seed));
             }
         }
         return leaves;
     }
 
     /**
-     * @param x     x coordinate
-     * @param y     y coordinate
-     * @param trunk the leaf's trunk
-     * @return leaf
+     * @param trunkLength length of trunk
+     * @return amount of cells in a row of the treetop
      */
-    private Leaf createLeaf(int x, int y, List<GameObject> trunk) {
-        double isLeafShouldBeCreated = rand.nextDouble();
-        if (isLeafShouldBeCreated > LEAF_CREATION_PERCENTAGE) {
-            return null;
-        }
-        var topLeftCorner = new Vector2(x, y);
-        return new Leaf(topLeftCorner, this, trunk, seed);
+    private static int treetopSide(int trunkLength) {
+        return 2 * (int) (trunkLength * TRUNK_LENGTH_TO_TREETOP_RADIUS_FACTOR) + 1;
     }
 
     /**
+     * @param rand random of the tree's column
      * @return trunk's length
      */
-    private int getTrunkLength() {
-        float SpaceAboveTerrain =
-                GraphicManager.WINDOW_HEIGHT_TO_TERRAIN_FACTOR * GraphicManager.WINDOW_HEIGHT;
-        float LeftoverSpace = SpaceAboveTerrain * SKY_TO_LENGTH_FACTOR;
-        int maxLength = (int) (SpaceAboveTerrain - LeftoverSpace) / Block.SIZE;
-        int randomLength = rand.nextInt(maxLength);
+    private static int getTrunkLength(Random rand) {
+        int randomLength = rand.nextInt(MAX_TRUNK_LENGTH);
         return Math.max(randomLength, MIN_TRUNK_LENGTH);
     }
 
     /**
-     * adding trees to the game
+     * adding the trees built since the last batch to the game
      */
     private void addTreeToGame() {
-        for (var trunk : treetopByTrunk.keySet()) {
+        for (var trunk : pendingTrunks) {
             addBlocksToGame(trunk, trunkLayer);
             addBlocksToGame(treetopByTrunk.get(trunk), treetopLayer);
         }
+        pendingTrunks.clear();
     }
 
     /**
@@ -149,7 +231,7 @@ public class Tree {
      */
     private void addBlocksToGame(Iterable<GameObject> blocks, int layer) {
         for (var block : blocks) {
-            gameObjects.addGameObject(block, layer);
+            attachQueue.add(block, layer);
         }
     }
 }
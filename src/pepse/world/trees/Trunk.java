@@ -2,13 +2,14 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import pepse.world.Block;
+import pepse.world.Palette;
 import pepse.world.Terrain;
 import pepse.GraphicManager;
 import java.awt.*;
 import java.util.ArrayList;
 
 public class Trunk {
-    private static final Color BASE_COLOR = new Color(100, 50, 20);
+    private static final Palette PALETTE = new Palette(new Color(100, 50, 20));
 
     /**
      * @param x      x coordinate
@@ -18,7 +19,7 @@ public class Trunk {
      */
     public static ArrayList<GameObject> create(int x, int length, int seed) {
         int y = Terrain.myGroundHeightAt(x, seed) - length * Block.SIZE;
-        return GraphicManager.createBlockCol(x, y, length, BASE_COLOR);
+        return GraphicManager.createBlockCol(x, y, length, PALETTE, seed);
     }
 
 }
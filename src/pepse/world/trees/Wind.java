@@ -0,0 +1,135 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.Arrays;
+
+/**
+ * Sways all the leaves in the game from one object, instead of a rotation and a dimension transition per leaf.
+ * The state of every leaf lives in parallel arrays indexed by the leaf's wind slot, and the swaying is a
+ * function of the time since the leaf's wind started, so every leaf is updated in one pass without
+ * allocating, and looks the same as with back and forth linear transitions. Sleeping leaves are skipped,
+ * they're at the right angle again on the first update after they wake up.
+ */
+public class Wind extends GameObject {
+    private static final float MAX_ROTATION_ANGLE = 5;
+    private static final float MIN_ROTATION_ANGLE = -1 * MAX_ROTATION_ANGLE;
+    private static final float MAX_GROWTH_FACTOR = 1.15f;
+    private static final float MIN_GROWTH_FACTOR = 2 - MAX_GROWTH_FACTOR;
+    private static final float WIND_CYCLE = 1.6f;
+    private static final int INITIAL_CAPACITY = 1024;
+    static final int NO_SLOT = -1;
+
+    private Leaf[] leaves = new Leaf[INITIAL_CAPACITY];
+    private double[] startTimes = new double[INITIAL_CAPACITY];
+    private float[] phases = new float[INITIAL_CAPACITY];
+    private float[] angles = new float[INITIAL_CAPACITY];
+    private float[] growthFactors = new float[INITIAL_CAPACITY];
+    private int count = 0;
+    private double time = 0;
+
+    /**
+     * constructor
+     */
+    public Wind() {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        setTag("wind");
+    }
+
+    /**
+     * @return amount of leaves in the wind
+     */
+    public int leafCount() {
+        return count;
+    }
+
+    /**
+     * start swaying a leaf after a delay
+     *
+     * @param leaf  the leaf
+     * @param delay time until the leaf starts swaying
+     * @return the leaf's wind slot
+     */
+    int add(Leaf leaf, float delay) {
+        if (count == leaves.length) {
+            grow();
+        }
+        int slot = count++;
+        leaves[slot] = leaf;
+        startTimes[slot] = time + delay;
+        phases[slot] = 0;
+        angles[slot] = 0;
+        growthFactors[slot] = 1;
+        return slot;
+    }
+
+    /**
+     * start swaying a revived leaf again after a delay, from the leaf's initial angle and width
+     *
+     * @param slot  the leaf's wind slot
+     * @param delay time until the leaf starts swaying
+     */
+    void restart(int slot, float delay) {
+        startTimes[slot] = time + delay;
+        phases[slot] = 0;
+        angles[slot] = 0;
+        growthFactors[slot] = 1;
+        leaves[slot].renderer().setRenderableAngle(0);
+        leaves[slot].transform().setDimensionsX(Block.SIZE);
+    }
+
+    /**
+     * stop swaying a leaf, the last leaf takes its slot
+     *
+     * @param slot the leaf's wind slot
+     */
+    void remove(int slot) {
+        int last = --count;
+        if (slot != last) {
+            leaves[slot] = leaves[last];
+            startTimes[slot] = startTimes[last];
+            phases[slot] = phases[last];
+            angles[slot] = angles[last];
+            growthFactors[slot] = growthFactors[last];
+            leaves[slot].setWindSlot(slot);
+        }
+        leaves[last] = null;
+    }
+
+    /**
+     * @param deltaTime time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        time += deltaTime;
+        for (int i = 0; i < count; i++) {
+            double elapsed = time - startTimes[i];
+            if (elapsed < 0 || leaves[i].isAsleep()) {
+                continue;
+            }
+            float phase = (float) ((elapsed / WIND_CYCLE) % 2);
+            float t = phase <= 1 ? phase : 2 - phase;
+            phases[i] = phase;
+            angles[i] = MIN_ROTATION_ANGLE + (MAX_ROTATION_ANGLE - MIN_ROTATION_ANGLE) * t;
+            growthFactors[i] = MIN_GROWTH_FACTOR + (MAX_GROWTH_FACTOR - MIN_GROWTH_FACTOR) * t;
+            var leaf = leaves[i];
+            leaf.renderer().setRenderableAngle(angles[i]);
+            leaf.transform().setDimensionsX(Block.SIZE * growthFactors[i]);
+        }
+    }
+
+    /**
+     * doubling the capacity of the arrays
+     */
+    private void grow() {
+        int capacity = leaves.length * 2;
+        leaves = Arrays.copyOf(leaves, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        phases = Arrays.copyOf(phases, capacity);
+        angles = Arrays.copyOf(angles, capacity);
+        growthFactors = Arrays.copyOf(growthFactors, capacity);
+    }
+}
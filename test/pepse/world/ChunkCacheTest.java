@@ -0,0 +1,132 @@
+package pepse.world;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that chunks read back from the cache file, in the same run or after reopening it, hold the same
+ * heights and trees as freshly generated chunks, including chunks left of column 0, and that the directory
+ * only keeps the files of the seeds opened last.
+ */
+class ChunkCacheTest {
+    private static final int SEED = 123456789;
+    private static final int CHUNK_COLUMNS = 8;
+    private static final long MAX_BYTES = 1 << 16;
+    private static final int[] CHUNKS = {-3, -2, -1, 0, 1, 2};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void cachedChunksMatchGeneratedChunks() throws IOException {
+        var path = directory.resolve("chunks.bin");
+        var cache = new ChunkCache(path, SEED, CHUNK_COLUMNS, MAX_BYTES);
+        for (int chunk : CHUNKS) {
+            assertNull(cache.get(chunk));
+            cache.put(chunk, generate(chunk));
+            assertChunkEquals(generate(chunk), cache.get(chunk));
+        }
+        var reopened = new ChunkCache(path, SEED, CHUNK_COLUMNS, MAX_BYTES);
+        for (int chunk : CHUNKS) {
+            assertChunkEquals(generate(chunk), reopened.get(chunk));
+        }
+    }
+
+    @Test
+    void readChunksOutliveTheirSlot() throws IOException {
+        var cache = new ChunkCache(directory.resolve("chunks.bin"), SEED, CHUNK_COLUMNS, MAX_BYTES);
+        cache.put(0, generate(0));
+        var read = cache.get(0);
+        cache.put(cache.capacity(), generate(cache.capacity()));
+        assertChunkEquals(generate(0), read);
+    }
+
+    @Test
+    void anotherSeedStartsEmpty() throws IOException {
+        var path = directory.resolve("chunks.bin");
+        new ChunkCache(path, SEED, CHUNK_COLUMNS, MAX_BYTES).put(0, generate(0));
+        assertNull(new ChunkCache(path, SEED + 1, CHUNK_COLUMNS, MAX_BYTES).get(0));
+    }
+
+    @Test
+    void chunksInTheSameSlotEvictEachOther() throws IOException {
+        var cache = new ChunkCache(directory.resolve("chunks.bin"), SEED, CHUNK_COLUMNS, MAX_BYTES);
+        int other = -1 + cache.capacity();
+        cache.put(-1, generate(-1));
+        cache.put(other, generate(other));
+        assertNull(cache.get(-1));
+        assertChunkEquals(generate(other), cache.get(other));
+    }
+
+    @Test
+    void oldestFilesAreDeleted() throws IOException {
+        for (int seed = 0; seed < 5; seed++) {
+            var path = directory.resolve("chunks-" + seed + ".bin");
+            new ChunkCache(path, seed, CHUNK_COLUMNS, MAX_BYTES);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(1_000_000L * (5 - seed)));
+        }
+        var other = Files.createFile(directory.resolve("other.bin"));
+        ChunkCache.deleteOldestFiles(directory, 2);
+        for (int seed = 0; seed < 5; seed++) {
+            assertEquals(seed < 2, Files.exists(directory.resolve("chunks-" + seed + ".bin")), "seed " + seed);
+        }
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void openedOnlyWhenEnabled() {
+        var property = System.getProperty(ChunkCache.ENABLED_PROPERTY);
+        System.setProperty(ChunkCache.DIRECTORY_PROPERTY, directory.toString());
+        try {
+            System.clearProperty(ChunkCache.ENABLED_PROPERTY);
+            assertNull(ChunkCache.open(SEED, CHUNK_COLUMNS, false));
+            assertFalse(Files.exists(directory.resolve("chunks-" + SEED + ".bin")));
+            assertNotNull(ChunkCache.open(SEED, CHUNK_COLUMNS, true));
+            System.setProperty(ChunkCache.ENABLED_PROPERTY, "false");
+            assertNull(ChunkCache.open(SEED, CHUNK_COLUMNS, true));
+        } finally {
+            System.clearProperty(ChunkCache.DIRECTORY_PROPERTY);
+            if (property == null) {
+                System.clearProperty(ChunkCache.ENABLED_PROPERTY);
+            } else {
+                System.setProperty(ChunkCache.ENABLED_PROPERTY, property);
+            }
+        }
+    }
+
+    /**
+     * @param chunk index of the chunk
+     * @return freshly generated data of the chunk
+     */
+    private static ChunkData generate(int chunk) {
+        return ChunkData.generate(chunk * CHUNK_COLUMNS, CHUNK_COLUMNS, SEED);
+    }
+
+    /**
+     * @param expected the generated chunk
+     * @param actual   the chunk read from the cache
+     */
+    private static void assertChunkEquals(ChunkData expected, ChunkData actual) {
+        assertNotNull(actual);
+        assertEquals(expected.firstColumn(), actual.firstColumn());
+        for (int i = 0; i < CHUNK_COLUMNS; i++) {
+            int column = expected.firstColumn() + i;
+            assertEquals(HeightField.heightAt(column, SEED), actual.height(i), "column " + column);
+            assertEquals(expected.trunkLength(i), actual.trunkLength(i), "column " + column);
+            for (int cell = 0; cell < ChunkData.MAX_TREETOP_CELLS; cell++) {
+                assertEquals(expected.hasLeaf(i, cell), actual.hasLeaf(i, cell), "column " + column);
+            }
+        }
+    }
+}
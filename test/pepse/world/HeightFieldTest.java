@@ -0,0 +1,82 @@
+package pepse.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the ground heights of a few seeds, around column 0 and on both sides of the chunk and lattice
+ * borders, so a change to the height engine or its caches that moves the ground fails here.
+ */
+class HeightFieldTest {
+    private static final int[] SEEDS = {0, 1, -7, 123456789, "pepse".hashCode()};
+    private static final int[] COLUMNS = {-17, -9, -8, -1, 0, 1, 7, 8, 15, 16, 1000};
+    private static final int[][] HEIGHTS = {
+            {390, 450, 450, 510, 510, 510, 450, 450, 480, 480, 510},
+            {390, 480, 480, 510, 510, 480, 390, 390, 480, 480, 420},
+            {450, 510, 510, 540, 540, 540, 510, 510, 450, 450, 390},
+            {420, 390, 390, 360, 360, 360, 420, 420, 480, 510, 510},
+            {480, 420, 420, 450, 450, 450, 360, 360, 420, 450, 450},
+    };
+    private static final int FILL_SEED = 42;
+    private static final int FILL_FIRST_COLUMN = -12;
+    private static final int[] FILL_HEIGHTS = {
+            510, 510, 540, 540, 540, 540, 540, 540, 540, 540, 540, 540,
+            510, 510, 510, 510, 480, 450, 450, 450, 420, 420, 420, 420,
+    };
+
+    @Test
+    void heightAtMatchesGoldenHeights() {
+        for (int s = 0; s < SEEDS.length; s++) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                assertEquals(HEIGHTS[s][c], HeightField.heightAt(COLUMNS[c], SEEDS[s]),
+                        "seed " + SEEDS[s] + ", column " + COLUMNS[c]);
+            }
+        }
+    }
+
+    @Test
+    void fillMatchesGoldenHeights() {
+        var heights = new int[FILL_HEIGHTS.length];
+        HeightField.fill(FILL_FIRST_COLUMN, FILL_SEED, heights);
+        assertArrayEquals(FILL_HEIGHTS, heights);
+    }
+
+    @Test
+    void fillMatchesHeightAtFromAnyFirstColumn() {
+        for (int seed : SEEDS) {
+            for (int firstColumn = -20; firstColumn <= 20; firstColumn++) {
+                var heights = new int[19];
+                HeightField.fill(firstColumn, seed, heights);
+                for (int i = 0; i < heights.length; i++) {
+                    assertEquals(HeightField.heightAt(firstColumn + i, seed), heights[i],
+                            "seed " + seed + ", column " + (firstColumn + i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void cachedHeightsMatchGoldenHeights() {
+        for (int s = 0; s < SEEDS.length; s++) {
+            for (int pass = 0; pass < 2; pass++) {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    float x = COLUMNS[c] * Block.SIZE + Block.SIZE / 2f;
+                    assertEquals(HEIGHTS[s][c], Terrain.myGroundHeightAt(x, SEEDS[s]),
+                            "seed " + SEEDS[s] + ", column " + COLUMNS[c]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void heightCacheKeepsCollidingColumnsApart() {
+        var cache = new HeightCache(0, 8);
+        cache.put(-1, 510);
+        assertEquals(HeightCache.MISSING, cache.get(cache.capacity() - 1));
+        cache.put(cache.capacity() - 1, 450);
+        assertEquals(HeightCache.MISSING, cache.get(-1));
+        assertEquals(450, cache.get(cache.capacity() - 1));
+    }
+}
@@ -0,0 +1,85 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pepse.util.RenderInterpolator;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Wind;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a world adds each of its objects to the game once, so the objects added grow linearly with
+ * the world's width: a wide world adds as many objects as the chunks it's made of together.
+ */
+class WorldTest {
+    private static final int SEED = 1234;
+    private static final int CHUNK_WIDTH = 8 * Block.SIZE;
+    private static final int FIRST_CHUNK = -5;
+    // besides its blocks, the terrain of a world adds one image of its deep blocks
+    private static final int DEEP_TERRAIN_OBJECTS = 1;
+
+    private final ArrayList<World> worlds = new ArrayList<>();
+
+    @AfterEach
+    void removeWorlds() {
+        for (var world : worlds) {
+            world.removeWorld();
+        }
+        Block.POOL.recycleReleased();
+        Leaf.POOL.recycleReleased();
+    }
+
+    @Test
+    void attachQueueRejectsRequeuedObjects() {
+        var queue = new AttachQueue();
+        var object = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        assertTrue(queue.add(object, 0));
+        assertFalse(queue.add(object, 0));
+        queue.flushInto(new GameObjectCollection());
+        assertFalse(queue.add(object, 0));
+        assertEquals(1, queue.addedCount());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void addedObjectsMatchBlocks() {
+        for (int chunks = 1; chunks <= 16; chunks *= 2) {
+            var world = attachedWorld(FIRST_CHUNK * CHUNK_WIDTH, (FIRST_CHUNK + chunks) * CHUNK_WIDTH);
+            assertEquals(world.blockCount() + DEEP_TERRAIN_OBJECTS, world.getAddedObjectCount(),
+                    chunks + " chunks");
+        }
+    }
+
+    @Test
+    void addedObjectsGrowLinearlyWithWidth() {
+        int chunks = 16;
+        int chunkObjects = 0;
+        for (int chunk = FIRST_CHUNK; chunk < FIRST_CHUNK + chunks; chunk++) {
+            var world = attachedWorld(chunk * CHUNK_WIDTH, (chunk + 1) * CHUNK_WIDTH);
+            chunkObjects += world.getAddedObjectCount() - DEEP_TERRAIN_OBJECTS;
+        }
+        var wide = attachedWorld(FIRST_CHUNK * CHUNK_WIDTH, (FIRST_CHUNK + chunks) * CHUNK_WIDTH);
+        assertEquals(chunkObjects, wide.getAddedObjectCount() - DEEP_TERRAIN_OBJECTS);
+    }
+
+    /**
+     * @param leftBorder  left X border
+     * @param rightBorder right X border
+     * @return a world between the borders, with all its objects added to a collection
+     */
+    private World attachedWorld(int leftBorder, int rightBorder) {
+        var world = new World(leftBorder, rightBorder, new GameObjectCollection(), SEED, new Wind(),
+                new ViewBounds(), new RenderInterpolator());
+        world.attachAll();
+        worlds.add(world);
+        return world;
+    }
+}